@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntervalBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private Interval[] intervals;
+    private Interval[] others;
+    private Integer[] values;
+    private LongInterval[] longIntervals;
+    private LongInterval[] longOthers;
+    private long[] longValues;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        intervals = new Interval[size];
+        others = new Interval[size];
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            intervals[i] = randomInterval(random);
+            others[i] = randomInterval(random);
+            values[i] = new Integer(random.nextInt(1000));
+        }
+        longIntervals = new LongInterval[size];
+        longOthers = new LongInterval[size];
+        longValues = new long[size];
+        for (int i = 0; i < size; i++) {
+            longIntervals[i] = asLongInterval(intervals[i]);
+            longOthers[i] = asLongInterval(others[i]);
+            longValues[i] = values[i].longValue();
+        }
+    }
+
+    private Interval randomInterval(Random random) {
+        int lower = random.nextInt(1000);
+        return Interval.over(new Integer(lower), random.nextBoolean(), new Integer(lower + random.nextInt(100)), random.nextBoolean());
+    }
+
+    private LongInterval asLongInterval(Interval interval) {
+        return LongInterval.over(((Integer) interval.lowerLimit()).longValue(), interval.includesLowerLimit(),
+                ((Integer) interval.upperLimit()).longValue(), interval.includesUpperLimit());
+    }
+
+    @Benchmark
+    public void includes(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(intervals[i].includes(values[i]));
+    }
+
+    @Benchmark
+    public void intersects(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(intervals[i].intersects(others[i]));
+    }
+
+    @Benchmark
+    public void longIncludes(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(longIntervals[i].includes(longValues[i]));
+    }
+
+    @Benchmark
+    public void longIntersects(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(longIntervals[i].intersects(longOthers[i]));
+    }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntervalMapBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"16", "256", "4096"})
+    public int keys;
+
+    @Param({"linear", "tree"})
+    public String implementation;
+
+    private IntervalMap map;
+    private Integer[] lookups;
+
+    @Setup
+    public void setUp() {
+        map = implementation.equals("tree") ? (IntervalMap) new TreeIntervalMap() : new LinearIntervalMap();
+        for (int i = 0; i < keys; i++)
+            map.put(Interval.over(new Integer(i * 10), true, new Integer(i * 10 + 8), false), new Integer(i));
+        Random random = new Random(1);
+        lookups = new Integer[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+            lookups[i] = new Integer(random.nextInt(keys * 10));
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++)
+            blackhole.consume(map.get(lookups[i]));
+    }
+
+}
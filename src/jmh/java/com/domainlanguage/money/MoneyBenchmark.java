@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private Money[] monies;
+    private BigDecimal factor;
+    private Ratio ratio;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        monies = new Money[size];
+        for (int i = 0; i < size; i++)
+            monies[i] = Money.dollars(BigDecimal.valueOf(random.nextInt(10000000), 2));
+        factor = new BigDecimal("1.0825");
+        ratio = Ratio.of(7, 30);
+    }
+
+    @Benchmark
+    public Money plus() {
+        Money sum = Money.dollars(0);
+        for (int i = 0; i < monies.length; i++)
+            sum = sum.plus(monies[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public void times(Blackhole blackhole) {
+        for (int i = 0; i < monies.length; i++)
+            blackhole.consume(monies[i].times(factor, Rounding.HALF_EVEN));
+    }
+
+    @Benchmark
+    public void applying(Blackhole blackhole) {
+        for (int i = 0; i < monies.length; i++)
+            blackhole.consume(monies[i].applying(ratio, Rounding.HALF_EVEN));
+    }
+
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProrationBenchmark {
+
+    @Param({"2", "16", "256"})
+    public int parts;
+
+    private Proration proration;
+    private Money total;
+    private long[] proportions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        proration = new Proration();
+        total = Money.dollars(1000000.00);
+        proportions = new long[parts];
+        for (int i = 0; i < parts; i++)
+            proportions[i] = 1 + random.nextInt(1000);
+    }
+
+    @Benchmark
+    public Money[] proratedOver() {
+        return proration.proratedOver(total, proportions);
+    }
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BusinessCalendarBenchmark {
+
+    @Param({"1", "20", "250", "2500"})
+    public int businessDays;
+
+    private BusinessCalendar calendar;
+    private CalendarDate start;
+
+    @Setup
+    public void setUp() {
+        Set holidays = new HashSet();
+        for (int year = 2000; year <= 2030; year++) {
+            holidays.add(CalendarDate.from(year, 1, 1));
+            holidays.add(CalendarDate.from(year, 7, 4));
+            holidays.add(CalendarDate.from(year, 11, 11));
+            holidays.add(CalendarDate.from(year, 12, 25));
+        }
+        calendar = new BusinessCalendar();
+        calendar.addHolidays(holidays);
+        start = CalendarDate.from(2004, 3, 5);
+    }
+
+    @Benchmark
+    public CalendarDate plusBusinessDays() {
+        return calendar.plusBusinessDays(start, businessDays);
+    }
+
+}
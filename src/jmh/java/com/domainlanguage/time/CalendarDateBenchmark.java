@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CalendarDateBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private CalendarDate[] dates;
+    private int[] increments;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        dates = new CalendarDate[size];
+        increments = new int[size];
+        for (int i = 0; i < size; i++) {
+            dates[i] = CalendarDate.from(1950 + random.nextInt(150), 1 + random.nextInt(12), 1 + random.nextInt(28));
+            increments[i] = random.nextInt(2000) - 1000;
+        }
+    }
+
+    @Benchmark
+    public void plusDays(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(dates[i].plusDays(increments[i]));
+    }
+
+    @Benchmark
+    public void dayOfWeek(Blackhole blackhole) {
+        for (int i = 0; i < size; i++)
+            blackhole.consume(dates[i].dayOfWeek());
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimePointBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    @Param({"Universal", "America/New_York"})
+    public String zoneId;
+
+    private TimeZone zone;
+    private int[][] fields;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        zone = TimeZone.getTimeZone(zoneId);
+        fields = new int[size][];
+        for (int i = 0; i < size; i++)
+            fields[i] = new int[] {1950 + random.nextInt(150), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000)};
+    }
+
+    @Benchmark
+    public void at(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            int[] each = fields[i];
+            blackhole.consume(TimePoint.at(each[0], each[1], each[2], each[3], each[4], each[5], each[6], zone));
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ *
+ * LongArithmetic does on long values the rounded division that BigDecimal
+ * does, honoring the same Rounding modes, so that amounts held as counts of
+ * minor units can be scaled without creating a BigDecimal per amount. A
+ * result that cannot be represented as a long causes an ArithmeticException.
+ */
+
+package com.domainlanguage.base;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class LongArithmetic {
+
+    /**
+     * The quotient dividend / divisor, rounded to a whole number as
+     * BigDecimal.divide(divisor, 0, roundingMode) would round it.
+     */
+    public static long divide(long dividend, long divisor, int roundingMode) {
+        if (dividend == Long.MIN_VALUE && divisor == -1)
+            throw new ArithmeticException("long overflow");
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0)
+            return quotient;
+        boolean negative = (dividend ^ divisor) < 0;
+        if (roundsAwayFromZero(quotient, remainder, divisor, negative, roundingMode))
+            return negative ? quotient - 1 : quotient + 1;
+        return quotient;
+    }
+
+    /**
+     * The quotient (multiplicand * multiplier) / divisor, rounded once, as
+     * divide() would round it. The product is not required to fit into a long.
+     */
+    public static long timesDivide(long multiplicand, long multiplier, long divisor, int roundingMode) {
+        long product = multiplicand * multiplier;
+        if (!multiplicationOverflows(multiplicand, multiplier, product))
+            return divide(product, divisor, roundingMode);
+        BigDecimal exactProduct = new BigDecimal(BigInteger.valueOf(multiplicand).multiply(BigInteger.valueOf(multiplier)));
+        return exactProduct.divide(BigDecimal.valueOf(divisor), 0, roundingMode).longValueExact();
+    }
+
+    static boolean multiplicationOverflows(long x, long y, long product) {
+        if (((Math.abs(x) | Math.abs(y)) >>> 31) == 0)
+            return false;
+        return (y != 0 && product / y != x) || (x == Long.MIN_VALUE && y == -1);
+    }
+
+    private static boolean roundsAwayFromZero(long quotient, long remainder, long divisor, boolean negative, int roundingMode) {
+        switch (roundingMode) {
+        case Rounding.UP:
+            return true;
+        case Rounding.DOWN:
+            return false;
+        case Rounding.CEILING:
+            return !negative;
+        case Rounding.FLOOR:
+            return negative;
+        case Rounding.HALF_UP:
+            return compareToHalf(remainder, divisor) >= 0;
+        case Rounding.HALF_DOWN:
+            return compareToHalf(remainder, divisor) > 0;
+        case Rounding.HALF_EVEN:
+            int comparison = compareToHalf(remainder, divisor);
+            return comparison > 0 || (comparison == 0 && (quotient & 1) != 0);
+        case Rounding.UNNECESSARY:
+            throw new ArithmeticException("Rounding necessary");
+        default:
+            throw new IllegalArgumentException("Invalid rounding mode " + roundingMode);
+        }
+    }
+
+    /**
+     * Compares |remainder| with |divisor| / 2 without overflowing, even for a
+     * divisor of Long.MIN_VALUE (whose absolute value wraps around, but whose
+     * difference with |remainder| is still correct).
+     */
+    private static int compareToHalf(long remainder, long divisor) {
+        long absRemainder = Math.abs(remainder);
+        long rest = Math.abs(divisor) - absRemainder;
+        return absRemainder < rest ? -1 : (absRemainder == rest ? 0 : 1);
+    }
+
+}
@@ -12,35 +12,121 @@
  * gives control of the precision and rounding rules to the client, when the
  * time comes to compute a decimal value for the ratio. The client typically has
  * the responsibilities that enable an appropriate choice of these parameters.
+ * 
+ * A Ratio is kept as a fraction of whole numbers in lowest terms, so that equal
+ * ratios are equal however they were made, and chains of multiplication stay
+ * as small as their values allow. While both terms fit into longs, the
+ * arithmetic is done on longs; larger terms are held as BigIntegers.
  *  
  */
 
 package com.domainlanguage.base;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 public class Ratio {
-    private BigDecimal numerator;
-    private BigDecimal denominator;
+    private static final int CACHED_TERMS = 12;
+    //CACHE[n][d] is n/d, for every n/d in lowest terms with 0 <= n <= 12 and 0 < d <= 12.
+    private static final Ratio[][] CACHE = new Ratio[CACHED_TERMS + 1][CACHED_TERMS + 1];
+    private static final long[] TEN_TO_THE = new long[19];
+
+    static {
+        TEN_TO_THE[0] = 1;
+        for (int i = 1; i < TEN_TO_THE.length; i++)
+            TEN_TO_THE[i] = TEN_TO_THE[i - 1] * 10;
+        for (int d = 1; d <= CACHED_TERMS; d++)
+            for (int n = 0; n <= CACHED_TERMS; n++)
+                if (gcd(n, d) == 1)
+                    CACHE[n][d] = new Ratio(n, d);
+    }
+
+    //In lowest terms, with a positive denominator. While both terms fit into
+    //longs they are held in numerator and denominator, and the BigIntegers are
+    //null; otherwise the longs are zero.
+    private long numerator;
+    private long denominator = 1;
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
+    //The terms as last given by a persistence mapping framework, which may
+    //set them in either order, and not in lowest terms; null otherwise.
+    private BigDecimal mappedNumerator;
+    private BigDecimal mappedDenominator;
 
     public static Ratio of(BigDecimal numerator, BigDecimal denominator) {
-        return new Ratio(numerator, denominator);
+        //n * 10^-a / (d * 10^-b) is n * 10^b / (d * 10^a)
+        BigInteger n = numerator.unscaledValue();
+        BigInteger d = denominator.unscaledValue();
+        int exponent = denominator.scale() - numerator.scale();
+        if (exponent > 0)
+            n = n.multiply(BigInteger.TEN.pow(exponent));
+        else if (exponent < 0)
+            d = d.multiply(BigInteger.TEN.pow(-exponent));
+        return of(n, d);
     }
 
     public static Ratio of(long numerator, long denominator) {
-        return new Ratio(BigDecimal.valueOf(numerator), BigDecimal.valueOf(denominator));
+        if (denominator == 0)
+            throw new ArithmeticException("Division by zero");
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+            return reduced(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        long divisor = gcd(Math.abs(numerator), Math.abs(denominator));
+        if (denominator < 0)
+            divisor = -divisor;
+        return inLowestTerms(numerator / divisor, denominator / divisor);
     }
+
     public static Ratio of(BigDecimal fractional) {
-        return new Ratio(fractional, BigDecimal.valueOf(1));
+        int scale = fractional.scale();
+        if (scale >= 0 && scale < TEN_TO_THE.length && fractional.precision() < 19)
+            return of(fractional.unscaledValue().longValue(), TEN_TO_THE[scale]);
+        return of(fractional, BigDecimal.ONE);
     }
 
     public Ratio(BigDecimal numerator, BigDecimal denominator) {
+        this(of(numerator, denominator));
+    }
+
+    private Ratio(Ratio reduced) {
+        this.numerator = reduced.numerator;
+        this.denominator = reduced.denominator;
+        this.bigNumerator = reduced.bigNumerator;
+        this.bigDenominator = reduced.bigDenominator;
+    }
+
+    private Ratio(long numerator, long denominator) {
         this.numerator = numerator;
         this.denominator = denominator;
     }
 
+    private Ratio(BigInteger numerator, BigInteger denominator) {
+        this.numerator = 0;
+        this.denominator = 0;
+        this.bigNumerator = numerator;
+        this.bigDenominator = denominator;
+    }
+
     public BigDecimal decimalValue(int scale, int roundingRule) {
-        return numerator.divide(denominator, scale, roundingRule);
+        if (bigNumerator == null && scale >= 0 && scale < TEN_TO_THE.length) {
+            long multiplier = TEN_TO_THE[scale];
+            long product = numerator * multiplier;
+            if (!LongArithmetic.multiplicationOverflows(numerator, multiplier, product))
+                return BigDecimal.valueOf(LongArithmetic.divide(product, denominator, roundingRule), scale);
+        }
+        return breachEncapsulationOfNumerator().divide(breachEncapsulationOfDenominator(), scale, roundingRule);
+    }
+
+    /**
+     * The multiplicand times this ratio, rounded to a whole number as
+     * decimalValue(0, roundingRule) would round it, without creating any
+     * objects while the terms fit into longs. A result that cannot be
+     * represented as a long causes an ArithmeticException.
+     */
+    public long timesRounded(long multiplicand, int roundingRule) {
+        if (bigNumerator == null)
+            return LongArithmetic.timesDivide(multiplicand, numerator, denominator, roundingRule);
+        BigDecimal product = new BigDecimal(bigNumerator.multiply(BigInteger.valueOf(multiplicand)));
+        return product.divide(new BigDecimal(bigDenominator), 0, roundingRule).longValueExact();
     }
 
     public boolean equals(Object anObject) {
@@ -51,27 +137,114 @@ public class Ratio {
         }
     }
     public boolean equals(Ratio other) {
+        if (other == null || numerator != other.numerator || denominator != other.denominator)
+            return false;
+        if (bigNumerator == null)
+            return other.bigNumerator == null;
         return 
-        	other != null &&
-        	this.numerator.equals(other.numerator) && this.denominator.equals(other.denominator);
+            bigNumerator.equals(other.bigNumerator) && bigDenominator.equals(other.bigDenominator);
     }
 
     public int hashCode() {
-        return numerator.hashCode();
+        if (bigNumerator != null)
+            return bigNumerator.hashCode() * 31 + bigDenominator.hashCode();
+        return (int) (numerator ^ (numerator >>> 32)) * 31 + (int) (denominator ^ (denominator >>> 32));
     }
 
     public Ratio times(BigDecimal multiplier) {
-        return Ratio.of(numerator.multiply(multiplier), denominator);
+        return times(of(multiplier));
     }
 
     public Ratio times(Ratio multiplier) {
-        return Ratio.of(numerator.multiply(multiplier.numerator), denominator.multiply(multiplier.denominator));
+        if (bigNumerator == null && multiplier.bigNumerator == null) {
+            //Both factors are in lowest terms, so cancelling across them
+            //leaves the product in lowest terms too.
+            long acrossThis = gcd(Math.abs(numerator), multiplier.denominator);
+            long acrossOther = gcd(Math.abs(multiplier.numerator), denominator);
+            long n1 = numerator / acrossThis;
+            long d2 = multiplier.denominator / acrossThis;
+            long n2 = multiplier.numerator / acrossOther;
+            long d1 = denominator / acrossOther;
+            long n = n1 * n2;
+            long d = d1 * d2;
+            if (!LongArithmetic.multiplicationOverflows(n1, n2, n) && n != Long.MIN_VALUE &&
+                    !LongArithmetic.multiplicationOverflows(d1, d2, d))
+                return inLowestTerms(n, d);
+        }
+        return of(numeratorAsBigInteger().multiply(multiplier.numeratorAsBigInteger()),
+                denominatorAsBigInteger().multiply(multiplier.denominatorAsBigInteger()));
     }
 
     public String toString() {
-        return numerator.toString() + "/" + denominator;
+        return numeratorAsBigInteger() + "/" + denominatorAsBigInteger();
+    }
+
+    public BigDecimal breachEncapsulationOfNumerator() {
+        return new BigDecimal(numeratorAsBigInteger());
+    }
+
+    public BigDecimal breachEncapsulationOfDenominator() {
+        return new BigDecimal(denominatorAsBigInteger());
     }
-    
+
+    private BigInteger numeratorAsBigInteger() {
+        return bigNumerator == null ? BigInteger.valueOf(numerator) : bigNumerator;
+    }
+
+    private BigInteger denominatorAsBigInteger() {
+        return bigDenominator == null ? BigInteger.valueOf(denominator) : bigDenominator;
+    }
+
+    private static Ratio of(BigInteger numerator, BigInteger denominator) {
+        if (fitsInLong(numerator) && fitsInLong(denominator))
+            return of(numerator.longValue(), denominator.longValue());
+        return reduced(numerator, denominator);
+    }
+
+    private static Ratio reduced(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+        BigInteger divisor = numerator.gcd(denominator);
+        if (denominator.signum() < 0)
+            divisor = divisor.negate();
+        BigInteger n = numerator.divide(divisor);
+        BigInteger d = denominator.divide(divisor);
+        if (fitsInLong(n) && fitsInLong(d))
+            return inLowestTerms(n.longValue(), d.longValue());
+        return new Ratio(n, d);
+    }
+
+    private static Ratio inLowestTerms(long numerator, long denominator) {
+        if (numerator >= 0 && numerator <= CACHED_TERMS && denominator <= CACHED_TERMS)
+            return CACHE[(int) numerator][(int) denominator];
+        return new Ratio(numerator, denominator);
+    }
+
+    //Long.MIN_VALUE is left out, so that every long term can be negated.
+    private static boolean fitsInLong(BigInteger value) {
+        return value.bitLength() < 64 && value.longValue() != Long.MIN_VALUE;
+    }
+
+    //The greatest common divisor of two non-negative longs, by Stein's algorithm.
+    private static long gcd(long a, long b) {
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
+        int commonTwos = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long swap = a;
+                a = b;
+                b = swap;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << commonTwos;
+    }
+
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     Ratio() {
@@ -79,24 +252,36 @@ public class Ratio {
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private BigDecimal getForPersistentMapping_Denominator() {
-        return denominator;
+        return breachEncapsulationOfDenominator();
     }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private void setForPersistentMapping_Denominator(BigDecimal denominator) {
-        this.denominator = denominator;
+        mappedDenominator = denominator;
+        setTermsAsMapped();
     }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private BigDecimal getForPersistentMapping_Numerator() {
-        return numerator;
+        return breachEncapsulationOfNumerator();
     }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private void setForPersistentMapping_Numerator(BigDecimal numerator) {
-        this.numerator = numerator;
+        mappedNumerator = numerator;
+        setTermsAsMapped();
+    }
+
+    private void setTermsAsMapped() {
+        BigDecimal n = mappedNumerator == null ? breachEncapsulationOfNumerator() : mappedNumerator;
+        BigDecimal d = mappedDenominator == null ? breachEncapsulationOfDenominator() : mappedDenominator;
+        Ratio reduced = of(n, d);
+        this.numerator = reduced.numerator;
+        this.denominator = reduced.denominator;
+        this.bigNumerator = reduced.bigNumerator;
+        this.bigDenominator = reduced.bigDenominator;
     }
 
 
 
-}
\ No newline at end of file
+}
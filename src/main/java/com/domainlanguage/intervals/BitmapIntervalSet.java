@@ -0,0 +1,642 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A set of long values, such as day or minute numbers, kept as a
+ * compressed bitmap so that sets made of long runs of values are small and
+ * set operations work on 64 values at a time.
+ *
+ * The layout is that of a "roaring" bitmap: values are grouped by their
+ * upper 48 bits, and each group of 65536 possible values is held either as
+ * a sorted array of its members, when it has at most 4096 of them, or as a
+ * bitmap of 1024 words. Groups with no members take no space at all.
+ *
+ * union, intersect, difference and gaps leave their operands unchanged and
+ * answer a new set.
+ */
+public class BitmapIntervalSet {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+    private static final int LOW_BITS = 16;
+    private static final int LOW_MASK = 0xFFFF;
+
+    private long[] keys;
+    private Container[] containers;
+    private int size;
+
+    public BitmapIntervalSet() {
+        this(4);
+    }
+
+    private BitmapIntervalSet(int capacity) {
+        keys = new long[capacity];
+        containers = new Container[capacity];
+    }
+
+    /**
+     * The integral values included by intervals whose limits are Longs or
+     * Integers, taking account of which limits are included.
+     */
+    public static BitmapIntervalSet from(IntervalSequence intervals) {
+        BitmapIntervalSet result = new BitmapIntervalSet();
+        for (Iterator it = intervals.iterator(); it.hasNext();) {
+            Interval each = (Interval) it.next();
+            if (!each.hasLowerLimit() || !each.hasUpperLimit())
+                throw new IllegalArgumentException("Only bounded intervals can be held in a bitmap");
+            long first = longValue(each.lowerLimit()) + (each.includesLowerLimit() ? 0 : 1);
+            long last = longValue(each.upperLimit()) - (each.includesUpperLimit() ? 0 : 1);
+            if (first <= last)
+                result.addRange(first, last);
+        }
+        return result;
+    }
+
+    private static long longValue(Comparable limit) {
+        if (!(limit instanceof Long || limit instanceof Integer))
+            throw new IllegalArgumentException("Only Long or Integer limits can be held in a bitmap: " + limit);
+        return ((Number) limit).longValue();
+    }
+
+    public void add(long value) {
+        int index = indexOrCreate(value >> LOW_BITS);
+        containers[index] = containers[index].add(low(value));
+    }
+
+    /**
+     * Adds every value from first to last, both included.
+     */
+    public void addRange(long first, long last) {
+        checkRange(first, last);
+        long firstKey = first >> LOW_BITS;
+        long lastKey = last >> LOW_BITS;
+        for (long key = firstKey; key <= lastKey; key++) {
+            int index = indexOrCreate(key);
+            int from = key == firstKey ? low(first) : 0;
+            int to = key == lastKey ? low(last) : LOW_MASK;
+            containers[index] = containers[index].addRange(from, to);
+        }
+    }
+
+    public void remove(long value) {
+        removeRange(value, value);
+    }
+
+    /**
+     * Removes every value from first to last, both included.
+     */
+    public void removeRange(long first, long last) {
+        checkRange(first, last);
+        long firstKey = first >> LOW_BITS;
+        long lastKey = last >> LOW_BITS;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long key = keys[i];
+            Container container = containers[i];
+            if (key >= firstKey && key <= lastKey) {
+                int from = key == firstKey ? low(first) : 0;
+                int to = key == lastKey ? low(last) : LOW_MASK;
+                container = container.removeRange(from, to);
+            }
+            if (container != null) {
+                keys[kept] = key;
+                containers[kept] = container;
+                kept++;
+            }
+        }
+        Arrays.fill(containers, kept, size, null);
+        size = kept;
+    }
+
+    public boolean contains(long value) {
+        int index = indexOf(value >> LOW_BITS);
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long cardinality() {
+        long result = 0;
+        for (int i = 0; i < size; i++)
+            result += containers[i].cardinality();
+        return result;
+    }
+
+    public long first() {
+        if (isEmpty())
+            throw new IllegalStateException("An empty set has no first value");
+        return value(keys[0], containers[0].first());
+    }
+
+    public long last() {
+        if (isEmpty())
+            throw new IllegalStateException("An empty set has no last value");
+        return value(keys[size - 1], containers[size - 1].last());
+    }
+
+    public BitmapIntervalSet union(BitmapIntervalSet other) {
+        BitmapIntervalSet result = new BitmapIntervalSet(size + other.size);
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || other.keys[j] < keys[i]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public BitmapIntervalSet intersect(BitmapIntervalSet other) {
+        BitmapIntervalSet result = new BitmapIntervalSet(Math.max(1, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                result.append(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The values of this set that are not in the other.
+     */
+    public BitmapIntervalSet difference(BitmapIntervalSet other) {
+        BitmapIntervalSet result = new BitmapIntervalSet(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i])
+                j++;
+            if (j < other.size && other.keys[j] == keys[i])
+                result.append(keys[i], andNot(containers[i], other.containers[j]));
+            else
+                result.append(keys[i], containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * The values from the first of this set to the last that are not in it.
+     */
+    public BitmapIntervalSet gaps() {
+        if (isEmpty())
+            return new BitmapIntervalSet();
+        BitmapIntervalSet extent = new BitmapIntervalSet(size);
+        extent.addRange(first(), last());
+        return extent.difference(this);
+    }
+
+    /**
+     * The runs of consecutive values, in order, as pairs of first and last
+     * value: {first0, last0, first1, last1, ...}.
+     */
+    public long[] ranges() {
+        long[] result = new long[8];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Container container = containers[i];
+            long base = keys[i] << LOW_BITS;
+            int start = container.nextPresent(0);
+            while (start >= 0) {
+                int end = container.nextAbsent(start);
+                long last = base + (end < 0 ? LOW_MASK : end - 1);
+                boolean continues = count > 0 && start == 0 && result[count - 1] == base - 1;
+                if (continues) {
+                    result[count - 1] = last;
+                } else {
+                    if (count == result.length)
+                        result = Arrays.copyOf(result, count * 2);
+                    result[count++] = base + start;
+                    result[count++] = last;
+                }
+                start = end < 0 ? -1 : container.nextPresent(end);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * The runs of consecutive values as closed intervals of Longs.
+     */
+    public IntervalSequence asIntervalSequence() {
+        IntervalSequence result = new IntervalSequence();
+        long[] ranges = ranges();
+        for (int i = 0; i < ranges.length; i += 2)
+            result.add(Interval.closed(Long.valueOf(ranges[i]), Long.valueOf(ranges[i + 1])));
+        return result;
+    }
+
+    public boolean equals(Object other) {
+        if (!(other instanceof BitmapIntervalSet))
+            return false;
+        return Arrays.equals(ranges(), ((BitmapIntervalSet) other).ranges());
+    }
+
+    public int hashCode() {
+        return Arrays.hashCode(ranges());
+    }
+
+    private static void checkRange(long first, long last) {
+        if (last < first)
+            throw new IllegalArgumentException("The range from " + first + " to " + last + " is empty");
+    }
+
+    private static int low(long value) {
+        return (int) value & LOW_MASK;
+    }
+
+    private static long value(long key, int low) {
+        return (key << LOW_BITS) | low;
+    }
+
+    private int indexOf(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key)
+                low = middle + 1;
+            else if (keys[middle] > key)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -(low + 1);
+    }
+
+    private int indexOrCreate(long key) {
+        int index = indexOf(key);
+        if (index >= 0)
+            return index;
+        index = -(index + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = new ArrayContainer();
+        size++;
+        return index;
+    }
+
+    //Keys must come in increasing order; an empty container is dropped.
+    private void append(long key, Container container) {
+        if (container == null)
+            return;
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length)
+            return;
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        containers = Arrays.copyOf(containers, newCapacity);
+    }
+
+    private static Container or(Container one, Container other) {
+        if (one instanceof ArrayContainer && other instanceof ArrayContainer
+                && one.cardinality() + other.cardinality() <= ARRAY_LIMIT)
+            return ((ArrayContainer) one).or((ArrayContainer) other);
+        long[] words = one.words();
+        long[] otherWords = other.words();
+        for (int i = 0; i < WORDS; i++)
+            words[i] |= otherWords[i];
+        return fromWords(words);
+    }
+
+    private static Container and(Container one, Container other) {
+        if (one instanceof ArrayContainer)
+            return ((ArrayContainer) one).filter(other, true);
+        if (other instanceof ArrayContainer)
+            return ((ArrayContainer) other).filter(one, true);
+        long[] words = one.words();
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < WORDS; i++)
+            words[i] &= otherWords[i];
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container one, Container other) {
+        if (one instanceof ArrayContainer)
+            return ((ArrayContainer) one).filter(other, false);
+        long[] words = one.words();
+        long[] otherWords = other.words();
+        for (int i = 0; i < WORDS; i++)
+            words[i] &= ~otherWords[i];
+        return fromWords(words);
+    }
+
+    /**
+     * The smaller container for the bits, or null if none is set. The
+     * words become the container's own.
+     */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (int i = 0; i < WORDS; i++)
+            cardinality += Long.bitCount(words[i]);
+        if (cardinality == 0)
+            return null;
+        BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+        return cardinality <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+    }
+
+    /**
+     * The members of one group of 65536 values, by their lower 16 bits.
+     * Changes answer the container to use from then on, which may be of
+     * the other kind, or null for one left empty.
+     */
+    private static abstract class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(int low);
+
+        abstract Container add(int low);
+
+        abstract Container addRange(int from, int to);
+
+        abstract Container removeRange(int from, int to);
+
+        abstract int first();
+
+        abstract int last();
+
+        //The least member at or after from, or -1 if there is none.
+        abstract int nextPresent(int from);
+
+        //The least non-member at or after from, or -1 if there is none.
+        abstract int nextAbsent(int from);
+
+        //A new bitmap of the members, for the caller to change.
+        abstract long[] words();
+
+        abstract Container copy();
+    }
+
+    private static class ArrayContainer extends Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        int cardinality() {
+            return size;
+        }
+
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, size, (char) low) >= 0;
+        }
+
+        Container add(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index >= 0)
+                return this;
+            if (size == ARRAY_LIMIT)
+                return toBitmap().add(low);
+            index = -(index + 1);
+            if (size == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = (char) low;
+            size++;
+            return this;
+        }
+
+        Container addRange(int from, int to) {
+            int start = lowerBound(from);
+            int end = lowerBound(to + 1);
+            int newSize = size - (end - start) + (to - from + 1);
+            if (newSize > ARRAY_LIMIT)
+                return toBitmap().addRange(from, to);
+            char[] result = new char[Math.max(newSize, 4)];
+            System.arraycopy(values, 0, result, 0, start);
+            int count = start;
+            for (int value = from; value <= to; value++)
+                result[count++] = (char) value;
+            System.arraycopy(values, end, result, count, size - end);
+            values = result;
+            size = newSize;
+            return this;
+        }
+
+        Container removeRange(int from, int to) {
+            int start = lowerBound(from);
+            int end = lowerBound(to + 1);
+            System.arraycopy(values, end, values, start, size - end);
+            size -= end - start;
+            return size == 0 ? null : this;
+        }
+
+        int first() {
+            return values[0];
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int nextPresent(int from) {
+            int index = lowerBound(from);
+            return index < size ? values[index] : -1;
+        }
+
+        int nextAbsent(int from) {
+            int candidate = from;
+            for (int index = lowerBound(from); index < size && values[index] == candidate; index++)
+                candidate++;
+            return candidate > LOW_MASK ? -1 : candidate;
+        }
+
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++)
+                words[values[i] >>> 6] |= 1L << values[i];
+            return words;
+        }
+
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        ArrayContainer or(ArrayContainer other) {
+            char[] result = new char[size + other.size];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && values[i] < other.values[j]))
+                    result[count++] = values[i++];
+                else if (i == size || other.values[j] < values[i])
+                    result[count++] = other.values[j++];
+                else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        //The members that are, or are not, members of the other too.
+        Container filter(Container other, boolean inOther) {
+            char[] result = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++)
+                if (other.contains(values[i]) == inOther)
+                    result[count++] = values[i];
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        private BitmapContainer toBitmap() {
+            return new BitmapContainer(words(), size);
+        }
+
+        private int lowerBound(int value) {
+            int index = Arrays.binarySearch(values, 0, size, (char) Math.min(value, LOW_MASK));
+            if (index < 0)
+                return -(index + 1);
+            return value > LOW_MASK ? size : index;
+        }
+    }
+
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        Container add(int low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (words[low >>> 6] != before)
+                cardinality++;
+            return this;
+        }
+
+        Container addRange(int from, int to) {
+            setRange(from, to, true);
+            return this;
+        }
+
+        Container removeRange(int from, int to) {
+            setRange(from, to, false);
+            if (cardinality == 0)
+                return null;
+            return cardinality <= ARRAY_LIMIT ? toArray() : this;
+        }
+
+        private void setRange(int from, int to, boolean set) {
+            int firstWord = from >>> 6;
+            int lastWord = to >>> 6;
+            for (int i = firstWord; i <= lastWord; i++) {
+                long mask = -1L;
+                if (i == firstWord)
+                    mask &= -1L << from;
+                if (i == lastWord)
+                    mask &= -1L >>> (63 - (to & 63));
+                long before = words[i];
+                words[i] = set ? before | mask : before & ~mask;
+                cardinality += Long.bitCount(words[i]) - Long.bitCount(before);
+            }
+        }
+
+        int first() {
+            return nextPresent(0);
+        }
+
+        int last() {
+            for (int i = WORDS - 1; i >= 0; i--)
+                if (words[i] != 0)
+                    return i * 64 + 63 - Long.numberOfLeadingZeros(words[i]);
+            return -1;
+        }
+
+        int nextPresent(int from) {
+            int i = from >>> 6;
+            long word = words[i] & (-1L << from);
+            while (true) {
+                if (word != 0)
+                    return i * 64 + Long.numberOfTrailingZeros(word);
+                if (++i == WORDS)
+                    return -1;
+                word = words[i];
+            }
+        }
+
+        int nextAbsent(int from) {
+            int i = from >>> 6;
+            long word = ~words[i] & (-1L << from);
+            while (true) {
+                if (word != 0)
+                    return i * 64 + Long.numberOfTrailingZeros(word);
+                if (++i == WORDS)
+                    return -1;
+                word = ~words[i];
+            }
+        }
+
+        long[] words() {
+            return words.clone();
+        }
+
+        Container copy() {
+            return new BitmapContainer(words(), cardinality);
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.List;
+
+/**
+ * An IntervalMap which many threads can share, such as a tariff schedule
+ * updated while it serves lookups. The entries are an immutable sorted
+ * array, copied on every put() or remove() and published through a volatile
+ * field, so a reader never locks or waits and always sees the map either
+ * before or after a whole change, never part way through splitting the
+ * intervals a put() overlaps.
+ *
+ * Writers take turns, and each pays for copying the array, so this suits
+ * maps read far more often than they change.
+ */
+public class ConcurrentIntervalMap implements IntervalMap {
+    private volatile IntervalArray entries = IntervalArray.EMPTY;
+
+    public synchronized void put(Interval keyInterval, Object value) {
+        entries = entries.with(keyInterval, value);
+    }
+
+    public synchronized void remove(Interval keyInterval) {
+        entries = entries.without(keyInterval);
+    }
+
+    public synchronized void clear() {
+        entries = IntervalArray.EMPTY;
+    }
+
+    public Object get(Comparable key) {
+        return entries.get(key);
+    }
+
+    public boolean containsKey(Comparable key) {
+        return entries.indexContaining(key) >= 0;
+    }
+
+    public boolean containsIntersectingKey(Interval interval) {
+        return entries.containsIntersectingKey(interval);
+    }
+
+    /**
+     * The key intervals which intersect the interval, in order, each as a
+     * Map.Entry with its value, all from the same state of the map.
+     */
+    public List entriesIntersecting(Interval interval) {
+        return entries.entriesIntersecting(interval);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.size() == 0;
+    }
+}
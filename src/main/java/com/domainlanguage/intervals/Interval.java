@@ -22,6 +22,8 @@ import java.util.List;
  * which implements Comparable can have intervals defined this way.
  */
 public class Interval implements Comparable, Serializable {
+    private static final long serialVersionUID = -1536244708419294888L;
+
     private IntervalLimit lowerLimitObject;
     private IntervalLimit upperLimitObject;
     
@@ -128,6 +130,15 @@ public class Interval implements Comparable, Serializable {
         return isOpen() && upperLimit().equals(lowerLimit());
     }
 
+    //Unlike isEmpty(), also true of half-open intervals such as [a, a),
+    //which IntervalMaps must not keep as keys.
+    boolean includesNothing() {
+        if (!hasLowerLimit() || !hasUpperLimit())
+            return false;
+        int comparison = lowerLimit().compareTo(upperLimit());
+        return comparison > 0 || (comparison == 0 && !isClosed());
+    }
+
     public boolean isSingleElement() {
         //An interval containing a single element, {a}.
         return upperLimit().equals(lowerLimit()) && !isEmpty();
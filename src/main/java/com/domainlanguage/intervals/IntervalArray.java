@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.*;
+
+/**
+ * An immutable array of key intervals, which never overlap, and their
+ * values, sorted by lower limit, for the IntervalMaps whose readers must
+ * never wait for a writer. A lookup is a binary search. Changing the keys
+ * makes a new IntervalArray with the same semantics as
+ * TreeIntervalMap.put() and remove(); the new array shares every key and
+ * value the change leaves alone, and copies the rest of the array in two
+ * block copies.
+ */
+final class IntervalArray {
+    static final IntervalArray EMPTY = new IntervalArray(new Interval[0], new Object[0]);
+
+    private static final Object REMOVED = new Object();
+
+    private final Interval[] keys;
+    private final Object[] values;
+
+    private IntervalArray(Interval[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    Interval keyAt(int index) {
+        return keys[index];
+    }
+
+    Object valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * The index of the key which includes the value, or -1 if none does.
+     */
+    int indexContaining(Comparable value) {
+        if (value == null)
+            return -1;
+        int floor = floorIndex(value, true);
+        return floor >= 0 && keys[floor].includes(value) ? floor : -1;
+    }
+
+    Object get(Comparable value) {
+        int index = indexContaining(value);
+        return index < 0 ? null : values[index];
+    }
+
+    boolean containsIntersectingKey(Interval interval) {
+        int first = firstIntersecting(interval);
+        return first < keys.length && keys[first].intersects(interval);
+    }
+
+    /**
+     * The keys which intersect the interval, in order, with their values.
+     */
+    List entriesIntersecting(Interval interval) {
+        List result = new ArrayList();
+        for (int i = firstIntersecting(interval); i < keys.length && keys[i].intersects(interval); i++)
+            result.add(new AbstractMap.SimpleImmutableEntry(keys[i], values[i]));
+        return result;
+    }
+
+    IntervalArray with(Interval keyInterval, Object value) {
+        return replacing(keyInterval, value);
+    }
+
+    IntervalArray without(Interval keyInterval) {
+        return replacing(keyInterval, REMOVED);
+    }
+
+    private IntervalArray replacing(Interval keyInterval, Object value) {
+        int from = firstIntersecting(keyInterval);
+        int to = from;
+        while (to < keys.length && keys[to].intersects(keyInterval))
+            to++;
+        boolean adding = value != REMOVED && !keyInterval.includesNothing();
+        if (from == to && !adding)
+            return this;
+        //What is left of the keys the new one overlaps, and the new one.
+        List middleKeys = new ArrayList();
+        List middleValues = new ArrayList();
+        for (int i = from; i < to; i++) {
+            for (Iterator it = keyInterval.complementRelativeTo(keys[i]).iterator(); it.hasNext();) {
+                Interval piece = (Interval) it.next();
+                if (!piece.includesNothing())
+                    insertInOrder(middleKeys, middleValues, piece, values[i]);
+            }
+        }
+        if (adding)
+            insertInOrder(middleKeys, middleValues, keyInterval, value);
+        int size = keys.length - (to - from) + middleKeys.size();
+        Interval[] newKeys = new Interval[size];
+        Object[] newValues = new Object[size];
+        System.arraycopy(keys, 0, newKeys, 0, from);
+        System.arraycopy(values, 0, newValues, 0, from);
+        for (int i = 0; i < middleKeys.size(); i++) {
+            newKeys[from + i] = (Interval) middleKeys.get(i);
+            newValues[from + i] = middleValues.get(i);
+        }
+        int rest = keys.length - to;
+        System.arraycopy(keys, to, newKeys, size - rest, rest);
+        System.arraycopy(values, to, newValues, size - rest, rest);
+        return new IntervalArray(newKeys, newValues);
+    }
+
+    //Only the last key with a lower limit at or below the interval's can
+    //lie below it; from there, the keys which intersect it are consecutive.
+    private int firstIntersecting(Interval interval) {
+        int floor = floorIndex(interval.lowerLimit(), interval.includesLowerLimit());
+        if (floor < 0)
+            return 0;
+        return keys[floor].intersects(interval) ? floor : floor + 1;
+    }
+
+    //The index of the last key whose lower limit is at or below the given one.
+    private int floorIndex(Comparable lower, boolean closed) {
+        int low = 0;
+        int high = keys.length - 1;
+        int floor = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Interval key = keys[middle];
+            if (IntervalLimit.compareAsLower(key.lowerLimit(), key.includesLowerLimit(), lower, closed) <= 0) {
+                floor = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return floor;
+    }
+
+    private static void insertInOrder(List keys, List values, Interval key, Object value) {
+        int index = keys.size();
+        while (index > 0) {
+            Interval before = (Interval) keys.get(index - 1);
+            if (IntervalLimit.compareAsLower(before.lowerLimit(), before.includesLowerLimit(), key.lowerLimit(), key.includesLowerLimit()) <= 0)
+                break;
+            index--;
+        }
+        keys.add(index, key);
+        values.add(index, value);
+    }
+}
@@ -8,6 +8,8 @@ package com.domainlanguage.intervals;
 import java.io.*;
 
 class IntervalLimit implements Comparable, Serializable {
+    private static final long serialVersionUID = 6339511182513589865L;
+
     private boolean closed;
     private Comparable value;
     private boolean lower;
@@ -53,6 +55,36 @@ class IntervalLimit implements Comparable, Serializable {
         }
         return value.compareTo(otherValue);
     }
+
+    // Orders two lower limits: an unbounded limit comes first and, for equal
+    // values, a closed limit comes before an open one.
+    static int compareAsLower(Comparable value, boolean closed, Comparable otherValue, boolean otherClosed) {
+        if (value != otherValue) {
+            if (value == null) return -1;
+            if (otherValue == null) return 1;
+            int comparison = value.compareTo(otherValue);
+            if (comparison != 0) return comparison;
+        } else if (value == null) {
+            return 0;
+        }
+        if (closed == otherClosed) return 0;
+        return closed ? -1 : 1;
+    }
+
+    // Orders two upper limits: an unbounded limit comes last and, for equal
+    // values, an open limit comes before a closed one.
+    static int compareAsUpper(Comparable value, boolean closed, Comparable otherValue, boolean otherClosed) {
+        if (value != otherValue) {
+            if (value == null) return 1;
+            if (otherValue == null) return -1;
+            int comparison = value.compareTo(otherValue);
+            if (comparison != 0) return comparison;
+        } else if (value == null) {
+            return 0;
+        }
+        if (closed == otherClosed) return 0;
+        return closed ? 1 : -1;
+    }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     IntervalLimit() {}
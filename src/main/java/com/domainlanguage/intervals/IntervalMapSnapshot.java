@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.List;
+
+/**
+ * One version of a VersionedIntervalMap, which never changes, however the
+ * map goes on changing.
+ */
+public final class IntervalMapSnapshot {
+    private final IntervalArray entries;
+    private final int version;
+
+    IntervalMapSnapshot(IntervalArray entries, int version) {
+        this.entries = entries;
+        this.version = version;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public Object get(Comparable key) {
+        return entries.get(key);
+    }
+
+    public boolean containsKey(Comparable key) {
+        return entries.indexContaining(key) >= 0;
+    }
+
+    public boolean containsIntersectingKey(Interval interval) {
+        return entries.containsIntersectingKey(interval);
+    }
+
+    /**
+     * The key intervals which intersect the interval, in order, each as a
+     * Map.Entry with its value: the values in effect over the interval, and
+     * where they change.
+     */
+    public List changesWithin(Interval interval) {
+        return entries.entriesIntersecting(interval);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -8,38 +8,114 @@ package com.domainlanguage.intervals;
 
 import java.util.*;
 
+/**
+ * Intervals kept in their natural order (Interval.compareTo), which is by
+ * upper limit. Each add is a binary search and an insertion, so a sequence
+ * stays sorted without being sorted again.
+ *
+ * coalesce(), gaps(), union() and intersect() treat the sequence as the set
+ * of everything its intervals include, and each takes one pass over
+ * intervals already in order.
+ */
 public class IntervalSequence {
     List intervals;
 
     public IntervalSequence() {
         intervals = new ArrayList();
     }
-    
+
+    private IntervalSequence(List sortedIntervals) {
+        intervals = sortedIntervals;
+    }
+
     public Iterator iterator() {
         return intervals.iterator();
     }
 
     public void add(Interval interval) {
-        intervals.add(interval);
-        Collections.sort(intervals); 
+        //After any equal intervals, as a stable sort would have put it.
+        int low = 0;
+        int high = intervals.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (((Interval) intervals.get(middle)).compareTo(interval) <= 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        intervals.add(low, interval);
     }
 
     public boolean isEmpty() {
         return intervals.isEmpty();
     }
 
+    /**
+     * The gaps between the intervals, in order. A value that no interval
+     * includes, but that lies between two that do, is in exactly one gap.
+     */
     public IntervalSequence gaps() {
-        IntervalSequence gaps = new IntervalSequence();
-        if (intervals.size() < 2)
-            return new IntervalSequence();
-        for (int i = 1; i < intervals.size(); i++) {
-            Interval left = (Interval) intervals.get(i - 1);
-            Interval right = (Interval) intervals.get(i);
-            Interval gap = left.gap(right);
-            if (!gap.isEmpty())
-                gaps.add(gap);
+        List coalesced = coalesced();
+        List gaps = new ArrayList();
+        for (int i = 1; i < coalesced.size(); i++) {
+            Interval left = (Interval) coalesced.get(i - 1);
+            Interval right = (Interval) coalesced.get(i);
+            gaps.add(left.newOfSameType(left.upperLimit(), !left.includesUpperLimit(), right.lowerLimit(), !right.includesLowerLimit()));
+        }
+        return new IntervalSequence(gaps);
+    }
+
+    /**
+     * The intervals that overlap or touch merged into one, so that the
+     * result holds the same values in disjoint intervals. Empty intervals
+     * are dropped.
+     */
+    public IntervalSequence coalesce() {
+        return new IntervalSequence(coalesced());
+    }
+
+    public IntervalSequence union(IntervalSequence other) {
+        List merged = new ArrayList(intervals.size() + other.intervals.size());
+        Iterator mine = intervals.iterator();
+        Iterator theirs = other.intervals.iterator();
+        Interval nextMine = next(mine);
+        Interval nextTheirs = next(theirs);
+        while (nextMine != null || nextTheirs != null) {
+            if (nextTheirs == null || (nextMine != null && nextMine.compareTo(nextTheirs) <= 0)) {
+                merged.add(nextMine);
+                nextMine = next(mine);
+            } else {
+                merged.add(nextTheirs);
+                nextTheirs = next(theirs);
+            }
+        }
+        return new IntervalSequence(merged).coalesce();
+    }
+
+    /**
+     * The values included by both sequences, as disjoint intervals.
+     */
+    public IntervalSequence intersect(IntervalSequence other) {
+        List mine = coalesced();
+        List theirs = other.coalesced();
+        List intersection = new ArrayList();
+        int i = 0;
+        int j = 0;
+        while (i < mine.size() && j < theirs.size()) {
+            Interval left = (Interval) mine.get(i);
+            Interval right = (Interval) theirs.get(j);
+            boolean leftStartsLast = IntervalLimit.compareAsLower(left.lowerLimit(), left.includesLowerLimit(), right.lowerLimit(), right.includesLowerLimit()) >= 0;
+            Interval startsLast = leftStartsLast ? left : right;
+            int upperComparison = IntervalLimit.compareAsUpper(left.upperLimit(), left.includesUpperLimit(), right.upperLimit(), right.includesUpperLimit());
+            Interval endsFirst = upperComparison <= 0 ? left : right;
+            if (overlaps(endsFirst, startsLast))
+                intersection.add(left.newOfSameType(startsLast.lowerLimit(), startsLast.includesLowerLimit(), endsFirst.upperLimit(), endsFirst.includesUpperLimit()));
+            if (upperComparison <= 0)
+                i++;
+            else
+                j++;
         }
-        return gaps;
+        return new IntervalSequence(intersection);
     }
 
     public Interval extent() {
@@ -53,6 +129,72 @@ public class IntervalSequence {
         Interval right = (Interval) intervals.get(intervals.size() - 1);
         return left.newOfSameType(left.lowerLimit(), left.includesLowerLimit(), right.upperLimit(), right.includesUpperLimit());
     }
+
+    /**
+     * Sweeps from the highest upper limit down. Every interval still to come
+     * ends no higher than the current one, so once one ends below the
+     * merged interval's lower limit, nothing later can reach it.
+     */
+    private List coalesced() {
+        List result = new ArrayList();
+        Interval current = null;
+        for (ListIterator each = intervals.listIterator(intervals.size()); each.hasPrevious();) {
+            Interval interval = (Interval) each.previous();
+            if (interval.includesNothing())
+                continue;
+            if (current == null) {
+                current = interval;
+            } else if (reaches(interval, current)) {
+                current = merged(interval, current);
+            } else {
+                result.add(current);
+                current = interval;
+            }
+        }
+        if (current != null)
+            result.add(current);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Whether the upper limit of one interval is at or above the lower limit
+     * of the other, so that together they leave no gap.
+     */
+    private static boolean reaches(Interval below, Interval above) {
+        if (!below.hasUpperLimit() || !above.hasLowerLimit())
+            return true;
+        int comparison = below.upperLimit().compareTo(above.lowerLimit());
+        if (comparison != 0)
+            return comparison > 0;
+        return below.includesUpperLimit() || above.includesLowerLimit();
+    }
+
+    /**
+     * Whether some value is both below the upper limit of one interval and
+     * above the lower limit of the other.
+     */
+    private static boolean overlaps(Interval below, Interval above) {
+        if (!below.hasUpperLimit() || !above.hasLowerLimit())
+            return true;
+        int comparison = below.upperLimit().compareTo(above.lowerLimit());
+        if (comparison != 0)
+            return comparison > 0;
+        return below.includesUpperLimit() && above.includesLowerLimit();
+    }
+
+    private static Interval merged(Interval one, Interval other) {
+        Interval lower = IntervalLimit.compareAsLower(one.lowerLimit(), one.includesLowerLimit(), other.lowerLimit(), other.includesLowerLimit()) <= 0 ? one : other;
+        Interval upper = IntervalLimit.compareAsUpper(one.upperLimit(), one.includesUpperLimit(), other.upperLimit(), other.includesUpperLimit()) >= 0 ? one : other;
+        if (lower == upper)
+            return lower;
+        return one.newOfSameType(lower.lowerLimit(), lower.includesLowerLimit(), upper.upperLimit(), upper.includesUpperLimit());
+    }
+
+    private static Interval next(Iterator iterator) {
+        return iterator.hasNext() ? (Interval) iterator.next() : null;
+    }
+
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private List getForPersistentMapping_Intervals() {
@@ -63,4 +205,4 @@ public class IntervalSequence {
     private void setForPersistentMapping_Intervals(List intervals) {
         this.intervals = intervals;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.io.Serializable;
+
+/**
+ * An interval of long values, compared as primitives rather than through
+ * Comparable. Its answers are those of an Interval with the same limits as
+ * Longs, but testing a value is two comparisons of longs: the limits are
+ * also kept as the first and last values included.
+ *
+ * There are no unbounded limits; Long.MIN_VALUE and Long.MAX_VALUE stand
+ * in for them.
+ */
+public final class LongInterval implements Serializable {
+    private static final long serialVersionUID = 3469277808422130190L;
+
+    private final long lower;
+    private final long upper;
+    private final boolean lowerIncluded;
+    private final boolean upperIncluded;
+    //The least and greatest values included; first > last if there are none.
+    private final long first;
+    private final long last;
+
+    public static LongInterval closed(long lower, long upper) {
+        return new LongInterval(lower, true, upper, true);
+    }
+
+    public static LongInterval open(long lower, long upper) {
+        return new LongInterval(lower, false, upper, false);
+    }
+
+    public static LongInterval over(long lower, boolean lowerIncluded, long upper, boolean upperIncluded) {
+        return new LongInterval(lower, lowerIncluded, upper, upperIncluded);
+    }
+
+    public static LongInterval everFrom(long lower) {
+        return closed(lower, Long.MAX_VALUE);
+    }
+
+    public static LongInterval everPreceding(long upper) {
+        return over(Long.MIN_VALUE, true, upper, false);
+    }
+
+    private LongInterval(long lower, boolean lowerIncluded, long upper, boolean upperIncluded) {
+        if (lower > upper)
+            throw new IllegalArgumentException("The lower limit " + lower + " is above the upper limit " + upper);
+        this.lower = lower;
+        this.upper = upper;
+        this.lowerIncluded = lowerIncluded;
+        this.upperIncluded = upperIncluded;
+        boolean noneAfterLower = !lowerIncluded && lower == Long.MAX_VALUE;
+        boolean noneBeforeUpper = !upperIncluded && upper == Long.MIN_VALUE;
+        if (noneAfterLower || noneBeforeUpper) {
+            first = Long.MAX_VALUE;
+            last = Long.MIN_VALUE;
+        } else {
+            first = lowerIncluded ? lower : lower + 1;
+            last = upperIncluded ? upper : upper - 1;
+        }
+    }
+
+    public long lowerLimit() {
+        return lower;
+    }
+
+    public boolean includesLowerLimit() {
+        return lowerIncluded;
+    }
+
+    public long upperLimit() {
+        return upper;
+    }
+
+    public boolean includesUpperLimit() {
+        return upperIncluded;
+    }
+
+    public boolean includes(long value) {
+        return value >= first & value <= last;
+    }
+
+    public boolean isBelow(long value) {
+        return last < value;
+    }
+
+    public boolean isAbove(long value) {
+        return first > value;
+    }
+
+    public boolean isEmpty() {
+        return !lowerIncluded && !upperIncluded && lower == upper;
+    }
+
+    public boolean covers(LongInterval other) {
+        boolean lowerPass = includes(other.lower) || (lower == other.lower && !other.lowerIncluded);
+        boolean upperPass = includes(other.upper) || (upper == other.upper && !other.upperIncluded);
+        return lowerPass & upperPass;
+    }
+
+    public boolean intersects(LongInterval other) {
+        long greaterLower = Math.max(lower, other.lower);
+        long lesserUpper = Math.min(upper, other.upper);
+        if (greaterLower != lesserUpper)
+            return greaterLower < lesserUpper;
+        return includes(greaterLower) & other.includes(greaterLower);
+    }
+
+    public LongInterval intersect(LongInterval other) {
+        long greaterLower = Math.max(lower, other.lower);
+        long lesserUpper = Math.min(upper, other.upper);
+        if (greaterLower > lesserUpper)
+            return open(lower, lower);
+        boolean lowerIncludedInBoth = includes(greaterLower) && other.includes(greaterLower);
+        boolean upperIncludedInBoth = includes(lesserUpper) && other.includes(lesserUpper);
+        return new LongInterval(greaterLower, lowerIncludedInBoth, lesserUpper, upperIncludedInBoth);
+    }
+
+    public Interval asInterval() {
+        return Interval.over(Long.valueOf(lower), lowerIncluded, Long.valueOf(upper), upperIncluded);
+    }
+
+    public boolean equals(Object other) {
+        if (!(other instanceof LongInterval))
+            return false;
+        LongInterval interval = (LongInterval) other;
+        if (isEmpty() || interval.isEmpty())
+            return isEmpty() && interval.isEmpty();
+        return lower == interval.lower && upper == interval.upper &&
+                lowerIncluded == interval.lowerIncluded && upperIncluded == interval.upperIncluded;
+    }
+
+    public int hashCode() {
+        if (isEmpty())
+            return 0;
+        return (int) (lower ^ (lower >>> 32)) * 31 + (int) (upper ^ (upper >>> 32));
+    }
+
+    public String toString() {
+        if (isEmpty())
+            return "{}";
+        return (lowerIncluded ? "[" : "(") + lower + ", " + upper + (upperIncluded ? "]" : ")");
+    }
+
+}
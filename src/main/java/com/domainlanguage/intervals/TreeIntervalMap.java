@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.*;
+
+/**
+ * An IntervalMap with the same semantics as LinearIntervalMap, but which keeps
+ * its key intervals sorted by lower limit. Since key intervals never overlap,
+ * the only key that can include a value is the one with the greatest lower
+ * limit at or below it, so lookups take O(log n) and intersection queries
+ * O(log n + k) instead of a scan over every key.
+ */
+public class TreeIntervalMap implements IntervalMap {
+    private static final Comparator LOWER_LIMIT_ORDER = new Comparator() {
+        public int compare(Object one, Object another) {
+            Interval interval = (Interval) one;
+            Interval other = (Interval) another;
+            return IntervalLimit.compareAsLower(interval.lowerLimit(), interval.includesLowerLimit(), other.lowerLimit(), other.includesLowerLimit());
+        }
+    };
+
+    private TreeMap keyValues;
+
+    public TreeIntervalMap() {
+        keyValues = new TreeMap(LOWER_LIMIT_ORDER);
+    }
+
+    public void put(Interval keyInterval, Object value) {
+        remove(keyInterval);
+        directPut(keyInterval, value);
+    }
+
+    public void remove(Interval keyInterval) {
+        List intervalSequence = intersectingKeys(keyInterval);
+        for (Iterator iter = intervalSequence.iterator(); iter.hasNext();) {
+            Interval oldInterval = (Interval) iter.next();
+            Object oldValue = keyValues.remove(oldInterval);
+            List complementIntervalSequence = keyInterval.complementRelativeTo(oldInterval);
+            for (Iterator each = complementIntervalSequence.iterator(); each.hasNext();)
+                directPut((Interval) each.next(), oldValue);
+        }
+    }
+
+    private void directPut(Interval keyInterval, Object value) {
+        //A key that includes nothing can never be looked up, but it could share
+        //its lower limit with a real key, so it must not take a place in the
+        //tree. (complementRelativeTo can produce such degenerate intervals.)
+        if (keyInterval.includesNothing())
+            return;
+        keyValues.put(keyInterval, value);
+    }
+
+    public Object get(Comparable key) {
+        Map.Entry entry = entryContaining(key);
+        if (entry == null)
+            return null;
+        return entry.getValue();
+    }
+
+    public boolean containsKey(Comparable key) {
+        return entryContaining(key) != null;
+    }
+
+    public boolean containsIntersectingKey(Interval otherInterval) {
+        return !intersectingKeys(otherInterval, true).isEmpty();
+    }
+
+    private Map.Entry entryContaining(Comparable key) {
+        if (key == null)
+            return null;
+        Map.Entry candidate = keyValues.floorEntry(Interval.closed(key, key));
+        if (candidate == null)
+            return null;
+        Interval keyInterval = (Interval) candidate.getKey();
+        if (!keyInterval.includes(key))
+            return null;
+        return candidate;
+    }
+
+    private List intersectingKeys(Interval otherInterval) {
+        return intersectingKeys(otherInterval, false);
+    }
+
+    private List intersectingKeys(Interval otherInterval, boolean firstOnly) {
+        List intervalSequence = new ArrayList();
+        Object floor = keyValues.floorKey(otherInterval);
+        Iterator it = floor == null ? keyValues.keySet().iterator() : keyValues.tailMap(floor, true).keySet().iterator();
+        //Only the floor key can lie below otherInterval. Past it, the first key
+        //that does not intersect lies above otherInterval, and so do the rest.
+        boolean mayBeBelow = floor != null;
+        while (it.hasNext()) {
+            Interval keyInterval = (Interval) it.next();
+            if (keyInterval.intersects(otherInterval)) {
+                intervalSequence.add(keyInterval);
+                if (firstOnly)
+                    break;
+            } else if (!mayBeBelow) {
+                break;
+            }
+            mayBeBelow = false;
+        }
+        return intervalSequence;
+    }
+
+    //Only for use by persistence mapping frameworks
+    //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+    private Map getForPersistentMapping_KeyValues() {
+        return keyValues;
+    }
+    //Only for use by persistence mapping frameworks
+    //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+    private void setForPersistentMapping_KeyValues(Map keyValues) {
+        this.keyValues = new TreeMap(LOWER_LIMIT_ORDER);
+        this.keyValues.putAll(keyValues);
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An IntervalMap which keeps its versions, such as the effective-dated
+ * prices or tax rates known at each revision, keyed by TimeInterval or
+ * CalendarInterval. Every put() or remove() makes a new version, numbered
+ * from 1, version 0 being the empty map, and leaves the earlier versions as
+ * they were, so that any of them can be read later as a snapshot.
+ *
+ * Each version is an immutable sorted array, so lookups are binary
+ * searches. It shares with the version before it every key and value the
+ * change left alone, but not the array itself: a map of n entries keeps
+ * about n references per version. Versions nobody will ask for again can
+ * be released with retainSince(); snapshots already taken are unaffected.
+ * Writers take turns, but readers never lock: a version is complete before
+ * it is published through a volatile field.
+ *
+ * Versions are numbered rather than stamped with the time they were made,
+ * so that intervals need not depend on time. A caller that needs to ask
+ * "as of" a time can record the version() it made at that time.
+ */
+public class VersionedIntervalMap implements IntervalMap {
+    private volatile History history = new History(new IntervalArray[] {IntervalArray.EMPTY, null, null, null}, 0, 0);
+
+    public synchronized void put(Interval keyInterval, Object value) {
+        publish(current().with(keyInterval, value));
+    }
+
+    public synchronized void remove(Interval keyInterval) {
+        publish(current().without(keyInterval));
+    }
+
+    public Object get(Comparable key) {
+        return current().get(key);
+    }
+
+    public boolean containsKey(Comparable key) {
+        return current().indexContaining(key) >= 0;
+    }
+
+    public boolean containsIntersectingKey(Interval interval) {
+        return current().containsIntersectingKey(interval);
+    }
+
+    /**
+     * The current key intervals which intersect the interval, in order, each
+     * as a Map.Entry with its value.
+     */
+    public List changesWithin(Interval interval) {
+        return current().entriesIntersecting(interval);
+    }
+
+    public int version() {
+        return history.latest;
+    }
+
+    /**
+     * The earliest version asOfVersion() can still answer.
+     */
+    public int oldestVersion() {
+        return history.oldest;
+    }
+
+    public IntervalMapSnapshot snapshot() {
+        History current = history;
+        return new IntervalMapSnapshot(current.at(current.latest), current.latest);
+    }
+
+    public IntervalMapSnapshot asOfVersion(int version) {
+        History current = history;
+        if (version < current.oldest || version > current.latest)
+            throw new IllegalArgumentException("There is no version " + version + "; the versions kept are " +
+                    current.oldest + " to " + current.latest);
+        return new IntervalMapSnapshot(current.at(version), version);
+    }
+
+    /**
+     * Releases every version before the given one, which becomes the oldest
+     * that asOfVersion() answers.
+     */
+    public synchronized void retainSince(int version) {
+        History current = history;
+        if (version < current.oldest || version > current.latest)
+            throw new IllegalArgumentException("There is no version " + version + "; the versions kept are " +
+                    current.oldest + " to " + current.latest);
+        int kept = current.latest - version + 1;
+        IntervalArray[] versions = new IntervalArray[Math.max(4, kept * 2)];
+        System.arraycopy(current.versions, version - current.oldest, versions, 0, kept);
+        history = new History(versions, version, current.latest);
+    }
+
+    private IntervalArray current() {
+        History current = history;
+        return current.at(current.latest);
+    }
+
+    //Writers add each version past the end of those readers can see, so the
+    //array is shared from one History to the next until it has to grow.
+    private void publish(IntervalArray next) {
+        History current = history;
+        int version = current.latest + 1;
+        IntervalArray[] versions = current.versions;
+        int index = version - current.oldest;
+        if (index == versions.length)
+            versions = Arrays.copyOf(versions, versions.length * 2);
+        versions[index] = next;
+        history = new History(versions, current.oldest, version);
+    }
+
+    private static class History {
+        final IntervalArray[] versions;
+        final int oldest;
+        final int latest;
+
+        History(IntervalArray[] versions, int oldest, int latest) {
+            this.versions = versions;
+            this.oldest = oldest;
+            this.latest = latest;
+        }
+
+        IntervalArray at(int version) {
+            return versions[version - oldest];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.util.Currency;
+import java.util.Iterator;
+
+/**
+ * The ISO 4217 numeric codes of the available currencies, for indexing
+ * arrays by currency. A currency whose code is missing, or shared with
+ * another currency, has no index.
+ */
+class CurrencyCodes {
+    static final int NONE = -1;
+    static final int COUNT = 1000;
+
+    private static final Currency[] BY_CODE = new Currency[COUNT];
+
+    static {
+        boolean[] shared = new boolean[COUNT];
+        for (Iterator it = Currency.getAvailableCurrencies().iterator(); it.hasNext();) {
+            Currency each = (Currency) it.next();
+            int code = each.getNumericCode();
+            if (code <= 0 || code >= COUNT)
+                continue;
+            shared[code] = BY_CODE[code] != null;
+            BY_CODE[code] = each;
+        }
+        for (int code = 0; code < COUNT; code++)
+            if (shared[code])
+                BY_CODE[code] = null;
+    }
+
+    static int indexOf(Currency currency) {
+        int code = currency.getNumericCode();
+        if (code <= 0 || code >= COUNT || !currency.equals(BY_CODE[code]))
+            return NONE;
+        return code;
+    }
+
+    /**
+     * The currency with the index, or null if there is none.
+     */
+    static Currency withIndex(int index) {
+        return index >= 0 && index < COUNT ? BY_CODE[index] : null;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.intervals.LongInterval;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+
+/**
+ * The exchange rates between pairs of currencies over time. Each rate holds
+ * for a TimeInterval, and a pair may have any number of rates, as long as
+ * their intervals do not overlap.
+ *
+ * The limits of all the intervals divide time into spans within which the
+ * same rates hold, and the ExchangeRateTable for each span is made once,
+ * the first time it is asked for, so converting many amounts dated within
+ * a few spans costs a binary search each.
+ */
+public class ExchangeRateHistory {
+    private final List rates = new ArrayList();
+    //The first millisecond of each span after the first, in order.
+    private long[] spanStarts;
+    private ExchangeRateTable[] tables;
+
+    /**
+     * Records that one unit of the from currency is worth rate units of the
+     * to currency during the interval.
+     */
+    public synchronized void put(Currency from, Currency to, Ratio rate, TimeInterval validity) {
+        if (from.equals(to))
+            throw new IllegalArgumentException("There is no rate from " + from + " to itself");
+        if (rate.breachEncapsulationOfNumerator().signum() <= 0)
+            throw new IllegalArgumentException("The rate from " + from + " to " + to + " must be positive, not " + rate);
+        for (int i = 0; i < rates.size(); i++) {
+            DatedRate each = (DatedRate) rates.get(i);
+            if (each.isBetween(from, to) && each.validity.intersects(validity))
+                throw new IllegalArgumentException("There is already a rate between " + from + " and " + to + " for part of that time");
+        }
+        rates.add(new DatedRate(from, to, rate, validity));
+        spanStarts = null;
+        tables = null;
+    }
+
+    /**
+     * The rates which hold at the point, with the cross rates between them.
+     */
+    public synchronized ExchangeRateTable tableAt(TimePoint point) {
+        if (spanStarts == null) {
+            spanStarts = spanStarts();
+            tables = new ExchangeRateTable[spanStarts.length + 1];
+        }
+        int span = spanOf(point.asJavaUtilDate().getTime());
+        ExchangeRateTable result = tables[span];
+        if (result == null) {
+            result = tableOfRatesAt(point);
+            tables[span] = result;
+        }
+        return result;
+    }
+
+    public Ratio rate(Currency from, Currency to, TimePoint point) {
+        return tableAt(point).rate(from, to);
+    }
+
+    public Money convert(Money money, Currency currency, TimePoint point, int roundingMode) {
+        return tableAt(point).convert(money, currency, roundingMode);
+    }
+
+    /**
+     * Each of the monies in the currency, at the rates holding at the point
+     * with the same index.
+     */
+    public Money[] convert(Money[] monies, TimePoint[] points, Currency currency, int roundingMode) {
+        if (monies.length != points.length)
+            throw new IllegalArgumentException("There are " + monies.length + " monies but " + points.length + " points");
+        Money[] result = new Money[monies.length];
+        for (int i = 0; i < monies.length; i++)
+            result[i] = tableAt(points[i]).convert(monies[i], currency, roundingMode);
+        return result;
+    }
+
+    private int spanOf(long milliseconds) {
+        int found = Arrays.binarySearch(spanStarts, milliseconds);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    private long[] spanStarts() {
+        long[] limits = new long[rates.size() * 2];
+        int count = 0;
+        for (int i = 0; i < rates.size(); i++) {
+            LongInterval validity = ((DatedRate) rates.get(i)).validity.asLongInterval();
+            if (validity.isEmpty())
+                continue;
+            long first = validity.includesLowerLimit() ? validity.lowerLimit() : validity.lowerLimit() + 1;
+            long last = validity.includesUpperLimit() ? validity.upperLimit() : validity.upperLimit() - 1;
+            if (first != Long.MIN_VALUE)
+                limits[count++] = first;
+            if (last != Long.MAX_VALUE)
+                limits[count++] = last + 1;
+        }
+        Arrays.sort(limits, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++)
+            if (distinct == 0 || limits[i] != limits[distinct - 1])
+                limits[distinct++] = limits[i];
+        return Arrays.copyOf(limits, distinct);
+    }
+
+    private ExchangeRateTable tableOfRatesAt(TimePoint point) {
+        List holding = new ArrayList();
+        for (int i = 0; i < rates.size(); i++) {
+            DatedRate each = (DatedRate) rates.get(i);
+            if (each.validity.includes(point))
+                holding.add(each);
+        }
+        Currency[] from = new Currency[holding.size()];
+        Currency[] to = new Currency[holding.size()];
+        Ratio[] ratios = new Ratio[holding.size()];
+        for (int i = 0; i < holding.size(); i++) {
+            DatedRate each = (DatedRate) holding.get(i);
+            from[i] = each.from;
+            to[i] = each.to;
+            ratios[i] = each.rate;
+        }
+        return new ExchangeRateTable(from, to, ratios);
+    }
+
+    private static class DatedRate {
+        final Currency from;
+        final Currency to;
+        final Ratio rate;
+        final TimeInterval validity;
+
+        DatedRate(Currency from, Currency to, Ratio rate, TimeInterval validity) {
+            this.from = from;
+            this.to = to;
+            this.rate = rate;
+            this.validity = validity;
+        }
+
+        boolean isBetween(Currency one, Currency other) {
+            return (from.equals(one) && to.equals(other)) || (from.equals(other) && to.equals(one));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.domainlanguage.base.Ratio;
+
+/**
+ * An ExchangeRateTable converts Money between currencies at exact rates.
+ * It is made from rates between some pairs of currencies, each used in both
+ * directions, and works out the rate between every other pair it can reach
+ * through them, preferring the fewest conversions. The rates are kept in a
+ * dense matrix, so finding one takes two array lookups.
+ *
+ * Each rate is also kept between minor units (e.g. yen per cent), so that
+ * converting a Money which fits into a long of minor units is a
+ * multiplication and a division of longs. A table is immutable.
+ */
+public class ExchangeRateTable {
+    private static final Ratio ONE = Ratio.of(1, 1);
+
+    private final Currency[] currencies;
+    //The position of each currency in currencies, by CurrencyCodes index.
+    private final int[] positionByCode;
+    private final Map<Currency, Integer> positionByCurrency;
+    //rates[i][j] is the price of one unit of currencies[i] in currencies[j], or null.
+    private final Ratio[][] rates;
+    private final Ratio[][] minorUnitRates;
+
+    /**
+     * A table with one unit of each from currency worth rate units of the
+     * to currency at the same index.
+     */
+    public static ExchangeRateTable of(Currency[] from, Currency[] to, Ratio[] rates) {
+        if (from.length != to.length || from.length != rates.length)
+            throw new IllegalArgumentException("There must be a from currency, a to currency and a rate for each rate");
+        return new ExchangeRateTable(from, to, rates);
+    }
+
+    ExchangeRateTable(Currency[] from, Currency[] to, Ratio[] givenRates) {
+        List all = new ArrayList();
+        positionByCode = new int[CurrencyCodes.COUNT];
+        Arrays.fill(positionByCode, -1);
+        positionByCurrency = new HashMap<Currency, Integer>();
+        int[] fromPositions = new int[from.length];
+        int[] toPositions = new int[to.length];
+        for (int i = 0; i < givenRates.length; i++) {
+            if (givenRates[i].breachEncapsulationOfNumerator().signum() <= 0)
+                throw new IllegalArgumentException("The rate from " + from[i] + " to " + to[i] + " must be positive, not " + givenRates[i]);
+            fromPositions[i] = positionAdding(from[i], all);
+            toPositions[i] = positionAdding(to[i], all);
+        }
+        currencies = (Currency[]) all.toArray(new Currency[all.size()]);
+        int n = currencies.length;
+        Ratio[][] direct = new Ratio[n][n];
+        for (int i = 0; i < givenRates.length; i++) {
+            int f = fromPositions[i];
+            int t = toPositions[i];
+            if (f == t)
+                throw new IllegalArgumentException("There is no rate from " + from[i] + " to itself");
+            if (direct[f][t] != null)
+                throw new IllegalArgumentException("There is more than one rate between " + from[i] + " and " + to[i]);
+            direct[f][t] = givenRates[i];
+            direct[t][f] = inverseOf(givenRates[i]);
+        }
+        rates = crossRates(direct);
+        minorUnitRates = new Ratio[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                if (rates[i][j] != null)
+                    minorUnitRates[i][j] = rates[i][j].times(BigDecimal.ONE.scaleByPowerOfTen(
+                            currencies[j].getDefaultFractionDigits() - currencies[i].getDefaultFractionDigits()));
+    }
+
+    /**
+     * The price of one unit of the from currency in the to currency.
+     */
+    public Ratio rate(Currency from, Currency to) {
+        return rateIn(rates, from, to);
+    }
+
+    public boolean converts(Currency from, Currency to) {
+        int f = positionOf(from);
+        int t = positionOf(to);
+        return from.equals(to) || (f >= 0 && t >= 0 && rates[f][t] != null);
+    }
+
+    public Currency[] currencies() {
+        return currencies.clone();
+    }
+
+    /**
+     * The money in the currency, rounded to the currency's minor units.
+     */
+    public Money convert(Money money, Currency currency, int roundingMode) {
+        Currency from = money.getCurrency();
+        if (from.equals(currency))
+            return money;
+        Ratio minorUnitRate = minorUnitRate(from, currency);
+        if (money.isCompact()) {
+            try {
+                return Money.fromMinorUnits(minorUnitRate.timesRounded(money.getMinorUnits(), roundingMode), currency);
+            } catch (ArithmeticException tooLargeOrInexact) {
+                //Answered (or rethrown) by the general calculation below.
+            }
+        }
+        BigDecimal minorUnits = minorUnitRate.times(new BigDecimal(money.getAmount().unscaledValue())).decimalValue(0, roundingMode);
+        return Money.valueOf(minorUnits.movePointLeft(currency.getDefaultFractionDigits()), currency);
+    }
+
+    /**
+     * Each of the monies, which may be in different currencies, in the
+     * currency.
+     */
+    public Money[] convert(Money[] monies, Currency currency, int roundingMode) {
+        Money[] result = new Money[monies.length];
+        for (int i = 0; i < monies.length; i++)
+            result[i] = convert(monies[i], currency, roundingMode);
+        return result;
+    }
+
+    /**
+     * The number of minor units of the to currency one minor unit of the
+     * from currency is worth.
+     */
+    Ratio minorUnitRate(Currency from, Currency to) {
+        return rateIn(minorUnitRates, from, to);
+    }
+
+    private Ratio rateIn(Ratio[][] table, Currency from, Currency to) {
+        if (from.equals(to))
+            return ONE;
+        int f = positionOf(from);
+        int t = positionOf(to);
+        Ratio result = f < 0 || t < 0 ? null : table[f][t];
+        if (result == null)
+            throw new IllegalArgumentException("There is no rate from " + from + " to " + to);
+        return result;
+    }
+
+    private int positionOf(Currency currency) {
+        int code = CurrencyCodes.indexOf(currency);
+        if (code != CurrencyCodes.NONE)
+            return positionByCode[code];
+        Integer position = positionByCurrency.get(currency);
+        return position == null ? -1 : position.intValue();
+    }
+
+    private int positionAdding(Currency currency, List all) {
+        int position = positionOf(currency);
+        if (position >= 0)
+            return position;
+        position = all.size();
+        all.add(currency);
+        int code = CurrencyCodes.indexOf(currency);
+        if (code != CurrencyCodes.NONE)
+            positionByCode[code] = position;
+        else
+            positionByCurrency.put(currency, Integer.valueOf(position));
+        return position;
+    }
+
+    //From each currency, a breadth-first search over the direct rates, so
+    //that every cross rate goes through as few conversions as possible.
+    private static Ratio[][] crossRates(Ratio[][] direct) {
+        int n = direct.length;
+        Ratio[][] result = new Ratio[n][n];
+        int[] queue = new int[n];
+        for (int source = 0; source < n; source++) {
+            Ratio[] fromSource = result[source];
+            fromSource[source] = ONE;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int via = queue[head++];
+                for (int next = 0; next < n; next++) {
+                    if (direct[via][next] == null || fromSource[next] != null)
+                        continue;
+                    fromSource[next] = fromSource[via].times(direct[via][next]);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Ratio inverseOf(Ratio ratio) {
+        return Ratio.of(ratio.breachEncapsulationOfDenominator(), ratio.breachEncapsulationOfNumerator());
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A running total of minor units which many threads can add to at once,
+ * in the manner of java.util.concurrent.atomic.LongAdder. Each thread adds
+ * into one of several cells, kept a cache line apart, and the total is the
+ * sum of the cells. Unlike a LongAdder, a cell never wraps around: an
+ * addition that would overflow it goes instead to a BigInteger kept under
+ * a lock, so the total is always exact.
+ */
+class MinorUnitCells {
+    //Longs per cell, so that each cell has a 64-byte cache line to itself.
+    private static final int SPACING = 8;
+    private static final int CELLS = cellCount();
+
+    private final AtomicLongArray cells = new AtomicLongArray(CELLS * SPACING);
+    private BigInteger overflow = BigInteger.ZERO;
+    private volatile boolean hasOverflow;
+
+    void add(long minorUnits) {
+        int cell = homeCell();
+        while (true) {
+            int index = cell * SPACING;
+            long current = cells.get(index);
+            long sum = current + minorUnits;
+            if (((current ^ sum) & (minorUnits ^ sum)) < 0) {
+                addToOverflow(BigInteger.valueOf(minorUnits));
+                return;
+            }
+            if (cells.compareAndSet(index, current, sum))
+                return;
+            //Another thread shares this cell; try the next one.
+            cell = (cell + 1) & (CELLS - 1);
+        }
+    }
+
+    void add(BigInteger minorUnits) {
+        if (minorUnits.bitLength() < 64)
+            add(minorUnits.longValue());
+        else
+            addToOverflow(minorUnits);
+    }
+
+    /**
+     * The total of the additions, as a Money in the currency.
+     */
+    Money total(Currency currency) {
+        long sum = 0;
+        boolean fits = !hasOverflow;
+        for (int i = 0; i < CELLS && fits; i++) {
+            long cell = cells.get(i * SPACING);
+            long next = sum + cell;
+            fits = ((sum ^ next) & (cell ^ next)) >= 0;
+            sum = next;
+        }
+        if (fits)
+            return Money.fromMinorUnits(sum, currency);
+        return asMoney(bigTotal(), currency);
+    }
+
+    /**
+     * Answers the total and sets it to zero. No addition is lost, but one
+     * made during the reset may be counted in this total or the next.
+     */
+    Money totalThenReset(Currency currency) {
+        BigInteger total = takeOverflow();
+        long sum = 0;
+        for (int i = 0; i < CELLS; i++) {
+            long cell = cells.getAndSet(i * SPACING, 0);
+            long next = sum + cell;
+            if (((sum ^ next) & (cell ^ next)) < 0) {
+                total = total.add(BigInteger.valueOf(sum));
+                next = cell;
+            }
+            sum = next;
+        }
+        if (total.signum() == 0)
+            return Money.fromMinorUnits(sum, currency);
+        return asMoney(total.add(BigInteger.valueOf(sum)), currency);
+    }
+
+    void reset() {
+        takeOverflow();
+        for (int i = 0; i < CELLS; i++)
+            cells.set(i * SPACING, 0);
+    }
+
+    private BigInteger bigTotal() {
+        BigInteger result;
+        synchronized (this) {
+            result = overflow;
+        }
+        for (int i = 0; i < CELLS; i++)
+            result = result.add(BigInteger.valueOf(cells.get(i * SPACING)));
+        return result;
+    }
+
+    private synchronized void addToOverflow(BigInteger minorUnits) {
+        overflow = overflow.add(minorUnits);
+        hasOverflow = true;
+    }
+
+    private synchronized BigInteger takeOverflow() {
+        BigInteger result = overflow;
+        overflow = BigInteger.ZERO;
+        hasOverflow = false;
+        return result;
+    }
+
+    private static Money asMoney(BigInteger minorUnits, Currency currency) {
+        return Money.valueOf(new BigDecimal(minorUnits, currency.getDefaultFractionDigits()), currency);
+    }
+
+    //Spreading threads by their ids, as a LongAdder spreads them by a random probe.
+    private static int homeCell() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (CELLS - 1);
+    }
+
+    //The least power of two at least the number of processors, at most 64.
+    private static int cellCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(processors * 2 - 1, 1));
+    }
+}
@@ -6,8 +6,12 @@
 
 package com.domainlanguage.money;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Currency;
 import java.util.Iterator;
@@ -17,12 +21,24 @@ import com.domainlanguage.base.Rounding;
 import com.domainlanguage.time.Duration;
 
 public class Money implements Comparable, Serializable {
+	//The serialized form is that of the original class, whose only fields
+	//were amount and currency.
+	private static final long serialVersionUID = 6004132461570441291L;
 	private static final Currency USD = Currency.getInstance("USD");
 	private static final Currency EUR = Currency.getInstance("EUR");
 	private static final int DEFAULT_ROUNDING_MODE = Rounding.HALF_EVEN;
+	private static final long INFLATED = Long.MIN_VALUE;
 	
 	private BigDecimal amount;
 	private Currency currency;
+	/**
+	 * The amount counted in minor units of the currency (e.g. cents), or
+	 * INFLATED when it does not fit into a long. Most arithmetic is done on
+	 * this value, and the BigDecimal amount is only built when asked for.
+	 * Every amount that fits is kept compact, so two equal Monies always
+	 * have the same representation.
+	 */
+	private transient long minorUnits = INFLATED;
 	
 	/**
      * The constructor does not complex computations and requires simple, inputs
@@ -33,6 +49,19 @@ public class Money implements Comparable, Serializable {
 		if (amount.scale() != currency.getDefaultFractionDigits()) throw new IllegalArgumentException("Scale of amount does not match currency");
 		this.currency = currency;
 		this.amount = amount;
+		this.minorUnits = compactValueOf(amount);
+	}
+
+	private Money(long minorUnits, Currency currency) {
+		assert minorUnits != INFLATED;
+		this.currency = currency;
+		this.minorUnits = minorUnits;
+	}
+
+	static Money fromMinorUnits(long minorUnits, Currency currency) {
+		if (minorUnits == INFLATED)
+			return new Money(BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits()), currency);
+		return new Money(minorUnits, currency);
 	}
 
 	/**
@@ -122,7 +151,7 @@ public class Money implements Comparable, Serializable {
 	 * warning label of sorts. Let us know how you like it.
 	 */
 	public BigDecimal breachEncapsulationOfAmount() {
-		return amount;
+		return amount();
 	}
 
 	public Currency breachEncapsulationOfCurrency() {
@@ -136,9 +165,7 @@ public class Money implements Comparable, Serializable {
      * the smallest increment is not the smallest unit.
      */
 	Money minimumIncrement() {
-		BigDecimal one = new BigDecimal(1);
-		BigDecimal increment = one.movePointLeft(currency.getDefaultFractionDigits());
-		return Money.valueOf(increment, currency);
+		return new Money(1, currency);
 	}
 	
 	Money incremented() {
@@ -150,36 +177,54 @@ public class Money implements Comparable, Serializable {
 	}
 
 	public Money negated() {
+		if (isCompact())
+			return new Money(-minorUnits, currency);
 		return Money.valueOf(amount.negate(), currency);
 	}
 	
 	public Money abs() {
+		if (isCompact())
+			return minorUnits < 0 ? new Money(-minorUnits, currency) : this;
 		return Money.valueOf(amount.abs(), currency);
 	}
 	
 	public boolean isNegative() {
-		return amount.compareTo(new BigDecimal(0)) < 0;
+		return signum() < 0;
 	}
 	
 	public boolean isPositive() {
-		return amount.compareTo(new BigDecimal(0)) > 0;
+		return signum() > 0;
 	}
 	
 	public boolean isZero() {
-		return this.equals(Money.valueOf(0.0, currency));
+		return signum() == 0;
 	}
 	
 	public Money plus(Money other) {
         assertHasSameCurrencyAs(other);
-		return Money.valueOf(amount.add(other.amount), currency);
+		if (isCompact() && other.isCompact()) {
+			long sum = minorUnits + other.minorUnits;
+			//Overflow iff both operands have the sign opposite to the sum.
+			if (((minorUnits ^ sum) & (other.minorUnits ^ sum)) >= 0 && sum != INFLATED)
+				return new Money(sum, currency);
+		}
+		return Money.valueOf(amount().add(other.amount()), currency);
 	}
 	
 	public Money minus(Money other) {
-		return this.plus(other.negated());
+        assertHasSameCurrencyAs(other);
+		if (isCompact() && other.isCompact()) {
+			long difference = minorUnits - other.minorUnits;
+			//Overflow iff the operands differ in sign and the difference does not
+			//have the sign of the minuend.
+			if (((minorUnits ^ other.minorUnits) & (minorUnits ^ difference)) >= 0 && difference != INFLATED)
+				return new Money(difference, currency);
+		}
+		return Money.valueOf(amount().subtract(other.amount()), currency);
 	}
 
 	public Money dividedBy (BigDecimal divisor, int roundingMode) {
-		BigDecimal newAmount = amount.divide(divisor, roundingMode);
+		BigDecimal newAmount = amount().divide(divisor, roundingMode);
 		return Money.valueOf(newAmount,currency);
 	}
 	
@@ -193,7 +238,7 @@ public class Money implements Comparable, Serializable {
 	
 	public Ratio dividedBy (Money divisor) {
 		assertHasSameCurrencyAs(divisor);
-		return Ratio.of(amount, divisor.amount);
+		return Ratio.of(amount(), divisor.amount());
     }
 
 	public Money applying (Ratio ratio, int roundingRule) {
@@ -201,10 +246,25 @@ public class Money implements Comparable, Serializable {
 	}
 
 	public Money applying (Ratio ratio, int scale, int roundingRule) {
-		BigDecimal newAmount = ratio.times(amount).decimalValue(scale, roundingRule);
+		if (isCompact() && scale == currency.getDefaultFractionDigits()) {
+			try {
+				return fromMinorUnits(ratio.timesRounded(minorUnits, roundingRule), currency);
+			} catch (ArithmeticException tooLargeOrInexact) {
+				//Answered (or rethrown) by the general calculation below.
+			}
+		}
+		BigDecimal newAmount = ratio.times(amount()).decimalValue(scale, roundingRule);
 		return Money.valueOf(newAmount, currency);
 	}
 	
+	/**
+	 * This money in the currency, at the table's rate, rounded to the
+	 * currency's minor units.
+	 */
+	public Money convertedTo (Currency currency, ExchangeRateTable rates, int roundingRule) {
+		return rates.convert(this, currency, roundingRule);
+	}
+	
 	/**
      * TODO: Many apps require carrying extra precision in intermediate
      * calculations. The use of Ratio is a beginning, but need a comprehensive
@@ -223,7 +283,12 @@ public class Money implements Comparable, Serializable {
      * numbers. So what is scale of times?
      */
 	public Money times(BigDecimal factor, int roundingMode) {
-		return Money.valueOf(amount.multiply(factor), currency, roundingMode);
+		if (isCompact() && factor.scale() == 0 && factor.precision() < 19) {
+			long product = multiplyOrInflate(minorUnits, factor.longValue());
+			if (product != INFLATED)
+				return new Money(product, currency);
+		}
+		return Money.valueOf(amount().multiply(factor), currency, roundingMode);
 	}
 	
 	public Money times (double amount, int roundingMode) {
@@ -235,6 +300,11 @@ public class Money implements Comparable, Serializable {
 	}
 
 	public Money times(int i) {
+		if (isCompact()) {
+			long product = multiplyOrInflate(minorUnits, i);
+			if (product != INFLATED)
+				return new Money(product, currency);
+		}
 		return times(new BigDecimal(i));
 	}
 
@@ -245,7 +315,9 @@ public class Money implements Comparable, Serializable {
 	public int compareTo(Money other) {
 		if (!hasSameCurrencyAs(other)) 
             throw new IllegalArgumentException("Compare is not defined between different currencies");
-		return amount.compareTo(other.amount);
+		if (isCompact() && other.isCompact())
+			return minorUnits < other.minorUnits ? -1 : (minorUnits == other.minorUnits ? 0 : 1);
+		return amount().compareTo(other.amount());
 	}
 	
 	public boolean isGreaterThan(Money other) {
@@ -268,19 +340,21 @@ public class Money implements Comparable, Serializable {
         return 
             other != null &&
             hasSameCurrencyAs(other) && 
-            amount.equals(other.amount);
+            (isCompact() && other.isCompact() ? minorUnits == other.minorUnits : amount().equals(other.amount()));
     }
     
 	public int hashCode() {
+		if (isCompact())
+			return (int) (minorUnits ^ (minorUnits >>> 32));
 		return amount.hashCode();
 	}
 	
 	public String toString() {
-		return currency.getSymbol() + " " + amount;
+		return currency.getSymbol() + " " + amount();
 	}
 
 	public String toString(Locale locale) {
-		return currency.getSymbol(locale) + " " + amount;
+		return currency.getSymbol(locale) + " " + amount();
 	}
 
     public MoneyTimeRate per(Duration duration) {
@@ -297,18 +371,73 @@ public class Money implements Comparable, Serializable {
 //  }
     
     BigDecimal getAmount() {
-        return amount;
+        return amount();
     }
 
     Currency getCurrency() {
         return currency;
     }
+
+    /**
+     * Only meaningful when isCompact().
+     */
+    long getMinorUnits() {
+        return minorUnits;
+    }
     
     private void assertHasSameCurrencyAs(Money aMoney) {
         if (!hasSameCurrencyAs(aMoney))
             throw new IllegalArgumentException(aMoney.toString() + " is not same currency as " + this.toString());
     }
 
+    boolean isCompact() {
+        return minorUnits != INFLATED;
+    }
+
+    private int signum() {
+        if (isCompact())
+            return minorUnits < 0 ? -1 : (minorUnits == 0 ? 0 : 1);
+        return amount.signum();
+    }
+
+    private BigDecimal amount() {
+        BigDecimal result = amount;
+        if (result == null && isCompact()) {
+            //Racy but harmless: every thread computes an equal, immutable value.
+            result = BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+            amount = result;
+        }
+        return result;
+    }
+
+    private static long compactValueOf(BigDecimal amount) {
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() > 63)
+            return INFLATED;
+        return unscaled.longValue();
+    }
+
+    private static long multiplyOrInflate(long x, long y) {
+        long product = x * y;
+        long ax = Math.abs(x);
+        long ay = Math.abs(y);
+        if ((ax | ay) >>> 31 != 0) {
+            if ((y != 0 && product / y != x) || (x == Long.MIN_VALUE && y == -1))
+                return INFLATED;
+        }
+        return product;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        amount();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        minorUnits = compactValueOf(amount);
+    }
+
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     Money() {
@@ -316,12 +445,13 @@ public class Money implements Comparable, Serializable {
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private BigDecimal getForPersistentMapping_Amount() {
-        return amount;
+        return amount();
     }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
     private void setForPersistentMapping_Amount(BigDecimal amount) {
         this.amount = amount;
+        this.minorUnits = amount == null ? INFLATED : compactValueOf(amount);
     }
     //Only for use by persistence mapping frameworks
     //<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
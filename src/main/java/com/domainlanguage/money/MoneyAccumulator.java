@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.util.Currency;
+
+/**
+ * A running balance in one currency, which many threads can add to at once
+ * without locking, as a LongAdder would be used for a count. Additions go
+ * into striped cells of minor units; a total too large for a long is kept
+ * exactly, in a BigInteger, rather than wrapping around.
+ *
+ * sum() is not a snapshot: additions made while it runs may or may not be
+ * counted.
+ */
+public class MoneyAccumulator {
+    private final Currency currency;
+    private final MinorUnitCells cells = new MinorUnitCells();
+
+    public MoneyAccumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    public void add(Money money) {
+        if (!money.getCurrency().equals(currency))
+            throw new IllegalArgumentException(money + " is not in " + currency);
+        if (money.isCompact())
+            cells.add(money.getMinorUnits());
+        else
+            cells.add(money.getAmount().unscaledValue());
+    }
+
+    /**
+     * Adds an amount given as a count of minor units (e.g. cents).
+     */
+    public void add(long minorUnits) {
+        cells.add(minorUnits);
+    }
+
+    public Money sum() {
+        return cells.total(currency);
+    }
+
+    /**
+     * Answers the sum and sets the balance to zero, as sum() followed by
+     * reset() would, except that no addition made in between is lost.
+     */
+    public Money sumThenReset() {
+        return cells.totalThenReset(currency);
+    }
+
+    public void reset() {
+        cells.reset();
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public String toString() {
+        return sum().toString();
+    }
+}
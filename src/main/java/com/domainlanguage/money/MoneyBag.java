@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A MoneyBag keeps a running total for each currency added to it, so that
+ * amounts in mixed currencies can be summed without converting them. Many
+ * threads can add to a bag at once without locking: each currency's total
+ * is held as minor units in striped cells, found by the currency's ISO 4217
+ * numeric code, and an addition of a Money which fits into a long of minor
+ * units creates nothing.
+ */
+public class MoneyBag {
+    private final AtomicReferenceArray<MinorUnitCells> byCode = new AtomicReferenceArray<MinorUnitCells>(CurrencyCodes.COUNT);
+    //For the few currencies without a numeric code of their own.
+    private final ConcurrentMap<Currency, MinorUnitCells> byCurrency = new ConcurrentHashMap<Currency, MinorUnitCells>();
+
+    public static MoneyBag of(Collection monies) {
+        MoneyBag result = new MoneyBag();
+        for (Iterator it = monies.iterator(); it.hasNext();)
+            result.add((Money) it.next());
+        return result;
+    }
+
+    public void add(Money money) {
+        MinorUnitCells cells = cellsFor(money.getCurrency());
+        if (money.isCompact())
+            cells.add(money.getMinorUnits());
+        else
+            cells.add(money.getAmount().unscaledValue());
+    }
+
+    /**
+     * Adds the amount given as a count of the currency's minor units (e.g.
+     * cents), without creating a Money.
+     */
+    public void add(long minorUnits, Currency currency) {
+        cellsFor(currency).add(minorUnits);
+    }
+
+    /**
+     * Adds the totals of the other bag to this one.
+     */
+    public void addAll(MoneyBag other) {
+        Money[] totals = other.totals();
+        for (int i = 0; i < totals.length; i++)
+            add(totals[i]);
+    }
+
+    /**
+     * The total in the currency, which is zero if nothing in the currency
+     * has been added.
+     */
+    public Money total(Currency currency) {
+        MinorUnitCells cells = existingCellsFor(currency);
+        if (cells == null)
+            return Money.fromMinorUnits(0, currency);
+        return cells.total(currency);
+    }
+
+    /**
+     * The total in each currency added to the bag, in order of numeric code.
+     */
+    public Money[] totals() {
+        List result = new ArrayList();
+        for (int code = 0; code < byCode.length(); code++) {
+            MinorUnitCells cells = byCode.get(code);
+            if (cells != null)
+                result.add(cells.total(CurrencyCodes.withIndex(code)));
+        }
+        for (Iterator it = byCurrency.keySet().iterator(); it.hasNext();) {
+            Currency currency = (Currency) it.next();
+            result.add(byCurrency.get(currency).total(currency));
+        }
+        return (Money[]) result.toArray(new Money[result.size()]);
+    }
+
+    public Currency[] currencies() {
+        Money[] totals = totals();
+        Currency[] result = new Currency[totals.length];
+        for (int i = 0; i < totals.length; i++)
+            result[i] = totals[i].getCurrency();
+        return result;
+    }
+
+    public boolean isEmpty() {
+        for (int code = 0; code < byCode.length(); code++)
+            if (byCode.get(code) != null)
+                return false;
+        return byCurrency.isEmpty();
+    }
+
+    /**
+     * Empties the bag. Additions made at the same time may or may not be
+     * kept.
+     */
+    public void clear() {
+        for (int code = 0; code < byCode.length(); code++)
+            byCode.set(code, null);
+        byCurrency.clear();
+    }
+
+    public String toString() {
+        Money[] totals = totals();
+        StringBuffer result = new StringBuffer("{");
+        for (int i = 0; i < totals.length; i++) {
+            if (i > 0)
+                result.append(", ");
+            result.append(totals[i]);
+        }
+        return result.append("}").toString();
+    }
+
+    private MinorUnitCells cellsFor(Currency currency) {
+        int code = CurrencyCodes.indexOf(currency);
+        while (true) {
+            MinorUnitCells existing = code == CurrencyCodes.NONE ? byCurrency.get(currency) : byCode.get(code);
+            if (existing != null)
+                return existing;
+            MinorUnitCells created = new MinorUnitCells();
+            if (code == CurrencyCodes.NONE ? byCurrency.putIfAbsent(currency, created) == null : byCode.compareAndSet(code, null, created))
+                return created;
+        }
+    }
+
+    private MinorUnitCells existingCellsFor(Currency currency) {
+        int code = CurrencyCodes.indexOf(currency);
+        if (code == CurrencyCodes.NONE)
+            return byCurrency.get(currency);
+        return byCode.get(code);
+    }
+}
@@ -8,6 +8,7 @@ package com.domainlanguage.money;
 import java.math.BigDecimal;
 import java.util.Currency;
 import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
 import com.domainlanguage.time.TimeRate;
 
 public class MoneyTimeRate {
@@ -31,6 +32,27 @@ public class MoneyTimeRate {
 		return Money.valueOf(rate.over(duration, scale, roundRule), currency);
 	}
 
+	/**
+	 * The amounts accrued over each of the durations, rounded to the
+	 * currency's minor units, as counts of those units. Equal to
+	 * over(duration, currency's fraction digits, roundRule) for each.
+	 */
+	public long[] minorUnitsOver(Duration[] durations, int roundRule) {
+		return rate.unscaledOver(durations, currency.getDefaultFractionDigits(), roundRule);
+	}
+
+	public long[] minorUnitsOver(TimePoint[] starts, TimePoint[] ends, int roundRule) {
+		return rate.unscaledOver(starts, ends, currency.getDefaultFractionDigits(), roundRule);
+	}
+
+	public MoneyVector over(Duration[] durations, int roundRule) {
+		return MoneyVector.of(minorUnitsOver(durations, roundRule), currency);
+	}
+
+	public MoneyVector over(TimePoint[] starts, TimePoint[] ends, int roundRule) {
+		return MoneyVector.of(minorUnitsOver(starts, ends, roundRule), currency);
+	}
+
     public boolean equals(Object other) {
         try {
             return equals((MoneyTimeRate) other);
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Currency;
+
+import com.domainlanguage.base.LongArithmetic;
+import com.domainlanguage.base.Ratio;
+
+/**
+ * A MoneyVector is a fixed-length sequence of amounts in a single currency,
+ * held as counts of minor units (e.g. cents) in a long[]. It is meant for
+ * batch work over many amounts, where creating a Money per element would
+ * dominate the cost. Operations apply to every element and give the same
+ * results as the corresponding Money operation applied to each element.
+ * Like Money, a MoneyVector is immutable.
+ */
+public class MoneyVector {
+	private long[] minorUnits;
+	private Currency currency;
+
+	public static MoneyVector of(long[] minorUnits, Currency currency) {
+		return new MoneyVector(minorUnits.clone(), currency);
+	}
+
+	/**
+	 * All the elements must be in the same currency, and the array must not be
+	 * empty, since the currency is taken from its elements.
+	 */
+	public static MoneyVector from(Money[] monies) {
+		if (monies.length == 0) throw new IllegalArgumentException("Cannot determine the currency of an empty array");
+		return from(monies, monies[0].getCurrency());
+	}
+
+	public static MoneyVector from(Money[] monies, Currency currency) {
+		long[] minorUnits = new long[monies.length];
+		for (int i = 0; i < monies.length; i++) {
+			Money each = monies[i];
+			if (!each.getCurrency().equals(currency))
+				throw new IllegalArgumentException(each + " is not in " + currency);
+			if (!each.isCompact())
+				throw new IllegalArgumentException(each + " is too large for a MoneyVector");
+			minorUnits[i] = each.getMinorUnits();
+		}
+		return new MoneyVector(minorUnits, currency);
+	}
+
+	private MoneyVector(long[] minorUnits, Currency currency) {
+		this.minorUnits = minorUnits;
+		this.currency = currency;
+	}
+
+	public int size() {
+		return minorUnits.length;
+	}
+
+	public Money get(int index) {
+		return Money.fromMinorUnits(minorUnits[index], currency);
+	}
+
+	public Money[] toMoneyArray() {
+		Money[] result = new Money[minorUnits.length];
+		for (int i = 0; i < minorUnits.length; i++)
+			result[i] = Money.fromMinorUnits(minorUnits[i], currency);
+		return result;
+	}
+
+	/**
+	 * The sum is exact, even when it does not fit into a long.
+	 */
+	public Money sum() {
+		long sum = 0;
+		for (int i = 0; i < minorUnits.length; i++) {
+			long next = sum + minorUnits[i];
+			if (((sum ^ next) & (minorUnits[i] ^ next)) < 0)
+				return Money.valueOf(new BigDecimal(bigSumFrom(i, sum), currency.getDefaultFractionDigits()), currency);
+			sum = next;
+		}
+		return Money.fromMinorUnits(sum, currency);
+	}
+
+	private BigInteger bigSumFrom(int index, long partialSum) {
+		BigInteger sum = BigInteger.valueOf(partialSum);
+		for (int i = index; i < minorUnits.length; i++)
+			sum = sum.add(BigInteger.valueOf(minorUnits[i]));
+		return sum;
+	}
+
+	/**
+	 * Element-wise sum. An ArithmeticException is thrown if an element of the
+	 * result does not fit into a MoneyVector.
+	 */
+	public MoneyVector plus(MoneyVector other) {
+		assertHasSameCurrencyAs(other);
+		if (other.minorUnits.length != minorUnits.length)
+			throw new IllegalArgumentException("Cannot add vectors of different sizes");
+		long[] result = new long[minorUnits.length];
+		for (int i = 0; i < minorUnits.length; i++)
+			result[i] = Math.addExact(minorUnits[i], other.minorUnits[i]);
+		return new MoneyVector(result, currency);
+	}
+
+	public MoneyVector times(BigDecimal factor, int roundingMode) {
+		if (factor.scale() <= 0)
+			return scaledBy(factor.toBigIntegerExact(), BigInteger.ONE, roundingMode, currency);
+		return scaledBy(factor.unscaledValue(), BigInteger.TEN.pow(factor.scale()), roundingMode, currency);
+	}
+
+	public MoneyVector applying(Ratio ratio, int roundingMode) {
+		BigDecimal numerator = ratio.breachEncapsulationOfNumerator();
+		BigDecimal denominator = ratio.breachEncapsulationOfDenominator();
+		int scaleDifference = denominator.scale() - numerator.scale();
+		BigInteger n = numerator.unscaledValue();
+		BigInteger d = denominator.unscaledValue();
+		if (scaleDifference >= 0)
+			n = n.multiply(BigInteger.TEN.pow(scaleDifference));
+		else
+			d = d.multiply(BigInteger.TEN.pow(-scaleDifference));
+		return scaledBy(n, d, roundingMode, currency);
+	}
+
+	/**
+	 * Every element in the other currency, at the table's rate, as
+	 * Money.convertedTo() would convert it.
+	 */
+	public MoneyVector convertedTo(Currency other, ExchangeRateTable rates, int roundingMode) {
+		if (other.equals(currency)) return this;
+		Ratio rate = rates.minorUnitRate(currency, other);
+		return scaledBy(rate.breachEncapsulationOfNumerator().toBigIntegerExact(), rate.breachEncapsulationOfDenominator().toBigIntegerExact(), roundingMode, other);
+	}
+
+	/**
+	 * Each element becomes element * numerator / denominator, rounded once,
+	 * in the result currency.
+	 * The factor is reduced and checked once for the whole vector, so that
+	 * usually every element can be done in long arithmetic.
+	 */
+	private MoneyVector scaledBy(BigInteger numerator, BigInteger denominator, int roundingMode, Currency resultCurrency) {
+		if (denominator.signum() == 0) throw new ArithmeticException("Division by zero");
+		if (denominator.signum() < 0) {
+			numerator = numerator.negate();
+			denominator = denominator.negate();
+		}
+		BigInteger gcd = numerator.gcd(denominator);
+		if (gcd.signum() != 0 && !gcd.equals(BigInteger.ONE)) {
+			numerator = numerator.divide(gcd);
+			denominator = denominator.divide(gcd);
+		}
+		long[] result = new long[minorUnits.length];
+		if (numerator.bitLength() < 64 && denominator.bitLength() < 64) {
+			long n = numerator.longValue();
+			long d = denominator.longValue();
+			for (int i = 0; i < minorUnits.length; i++)
+				result[i] = LongArithmetic.timesDivide(minorUnits[i], n, d, roundingMode);
+		} else {
+			BigDecimal n = new BigDecimal(numerator);
+			BigDecimal d = new BigDecimal(denominator);
+			for (int i = 0; i < minorUnits.length; i++)
+				result[i] = BigDecimal.valueOf(minorUnits[i]).multiply(n).divide(d, 0, roundingMode).longValueExact();
+		}
+		return new MoneyVector(result, resultCurrency);
+	}
+
+	public Money min() {
+		assertNotEmpty();
+		long min = minorUnits[0];
+		for (int i = 1; i < minorUnits.length; i++)
+			if (minorUnits[i] < min) min = minorUnits[i];
+		return Money.fromMinorUnits(min, currency);
+	}
+
+	public Money max() {
+		assertNotEmpty();
+		long max = minorUnits[0];
+		for (int i = 1; i < minorUnits.length; i++)
+			if (minorUnits[i] > max) max = minorUnits[i];
+		return Money.fromMinorUnits(max, currency);
+	}
+
+	public long[] breachEncapsulationOfMinorUnits() {
+		return minorUnits.clone();
+	}
+
+	public Currency breachEncapsulationOfCurrency() {
+		return currency;
+	}
+
+	public boolean equals(Object other) {
+		if (!(other instanceof MoneyVector)) return false;
+		MoneyVector otherVector = (MoneyVector) other;
+		return currency.equals(otherVector.currency) && Arrays.equals(minorUnits, otherVector.minorUnits);
+	}
+
+	public int hashCode() {
+		return Arrays.hashCode(minorUnits);
+	}
+
+	public String toString() {
+		return currency.getCurrencyCode() + " x " + minorUnits.length;
+	}
+
+	private void assertHasSameCurrencyAs(MoneyVector other) {
+		if (!currency.equals(other.currency))
+			throw new IllegalArgumentException(other.toString() + " is not same currency as " + this.toString());
+	}
+
+	private void assertNotEmpty() {
+		if (minorUnits.length == 0)
+			throw new IllegalStateException("The vector is empty");
+	}
+
+	//Only for use by persistence mapping frameworks
+	//<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+	MoneyVector() {
+	}
+	//Only for use by persistence mapping frameworks
+	//<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+	private long[] getForPersistentMapping_MinorUnits() {
+		return minorUnits;
+	}
+	//Only for use by persistence mapping frameworks
+	//<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+	private void setForPersistentMapping_MinorUnits(long[] minorUnits) {
+		this.minorUnits = minorUnits;
+	}
+	//Only for use by persistence mapping frameworks
+	//<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+	private Currency getForPersistentMapping_Currency() {
+		return currency;
+	}
+	//Only for use by persistence mapping frameworks
+	//<rant>These methods break encapsulation and we put them in here begrudgingly</rant>
+	private void setForPersistentMapping_Currency(Currency currency) {
+		this.currency = currency;
+	}
+
+}
@@ -66,6 +66,129 @@ public class Proration {
 		return distributeRemainderOver(simpleResult, remainder);
 	}
 
+	/**
+	 * Prorates on amounts in minor units, in time linear in the number of
+	 * proportions, by the largest remainder method: each part first gets
+	 * the exact share total * proportion / sum rounded toward zero, then
+	 * the minor units left over go one each to the parts with the largest
+	 * discarded fractions, the earlier part first among equal fractions.
+	 */
+	public MoneyVector proratedVectorOver(Money total, long[] proportions) {
+		if (!total.isCompact())
+			throw new IllegalArgumentException(total + " is too large for a MoneyVector");
+		return MoneyVector.of(proratedOver(total.getMinorUnits(), proportions), total.getCurrency());
+	}
+
+	public long[] proratedOver(long totalMinorUnits, long[] proportions) {
+		if (totalMinorUnits == Long.MIN_VALUE)
+			throw new ArithmeticException("long overflow");
+		if (totalMinorUnits < 0) {
+			long[] results = proratedOver(-totalMinorUnits, proportions);
+			for (int i = 0; i < results.length; i++)
+				results[i] = -results[i];
+			return results;
+		}
+		long sum = 0;
+		long largest = 0;
+		for (int i = 0; i < proportions.length; i++) {
+			if (proportions[i] < 0)
+				throw new IllegalArgumentException("Proportions must not be negative");
+			sum = Math.addExact(sum, proportions[i]);
+			largest = Math.max(largest, proportions[i]);
+		}
+		if (sum == 0)
+			throw new IllegalArgumentException("Proportions must not all be zero");
+
+		long[] results = new long[proportions.length];
+		long[] remainders = new long[proportions.length];
+		long allocated = 0;
+		if (largest <= Long.MAX_VALUE / Math.max(totalMinorUnits, 1)) {
+			for (int i = 0; i < proportions.length; i++) {
+				long product = totalMinorUnits * proportions[i];
+				results[i] = product / sum;
+				remainders[i] = product % sum;
+				allocated += results[i];
+			}
+		} else {
+			BigInteger bigTotal = BigInteger.valueOf(totalMinorUnits);
+			BigInteger bigSum = BigInteger.valueOf(sum);
+			for (int i = 0; i < proportions.length; i++) {
+				BigInteger[] quotientAndRemainder = bigTotal.multiply(BigInteger.valueOf(proportions[i])).divideAndRemainder(bigSum);
+				results[i] = quotientAndRemainder[0].longValue();
+				remainders[i] = quotientAndRemainder[1].longValue();
+				allocated += results[i];
+			}
+		}
+		distributeLargestRemainders(results, remainders, (int) (totalMinorUnits - allocated));
+		return results;
+	}
+
+	/**
+	 * Gives one more unit to each of the increments parts with the largest
+	 * remainders. Since increments < results.length, only the increments-th
+	 * largest remainder has to be found, rather than sorting them all.
+	 */
+	private static void distributeLargestRemainders(long[] results, long[] remainders, int increments) {
+		if (increments == 0)
+			return;
+		long threshold = largest(remainders.clone(), increments);
+		for (int i = 0; i < results.length; i++) {
+			if (remainders[i] > threshold) {
+				results[i]++;
+				increments--;
+			}
+		}
+		for (int i = 0; increments > 0; i++) {
+			if (remainders[i] == threshold) {
+				results[i]++;
+				increments--;
+			}
+		}
+	}
+
+	/**
+	 * The k-th largest element (k counting from 1), by quickselect with a
+	 * three-way partition, since remainders are often all equal. The array
+	 * is reordered.
+	 */
+	static long largest(long[] values, int k) {
+		int low = 0;
+		int high = values.length - 1;
+		int target = k - 1;
+		while (true) {
+			long pivot = medianOfThree(values[low], values[(low + high) >>> 1], values[high]);
+			//Partition descending: [low, greater) > pivot, [greater, i) == pivot, (less, high] < pivot.
+			int greater = low;
+			int less = high;
+			int i = low;
+			while (i <= less) {
+				long value = values[i];
+				if (value > pivot)
+					swap(values, greater++, i++);
+				else if (value < pivot)
+					swap(values, i, less--);
+				else
+					i++;
+			}
+			if (target < greater)
+				high = greater - 1;
+			else if (target > less)
+				low = less + 1;
+			else
+				return pivot;
+		}
+	}
+
+	private static long medianOfThree(long a, long b, long c) {
+		return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+	}
+
+	private static void swap(long[] values, int i, int j) {
+		long temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+
 	public Money partOfWhole(Money total, long portion, long whole) {
 		return partOfWhole(total, Ratio.of(portion, whole));
 	}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.domainlanguage.time.TimeCodec;
+
+/**
+ * A TimeCodec which also writes Money, as its currency's ISO 4217 numeric
+ * code and its amount in minor units. An amount too large for a long of
+ * minor units is written in full, as its scale and unscaled bytes.
+ *
+ * The numeric codes are those of the fixed table below, not those of the
+ * running JDK, so that what one JDK writes any other can read. The table
+ * is part of the format and never changes: a currency it does not list,
+ * or one whose code ISO 4217 shares between two currencies, is written
+ * with code zero followed by its three-letter code. Reading either needs
+ * only that the JDK still knows the three-letter code.
+ *
+ * In the FIXED layout the currency takes two bytes and the amount eight; in
+ * the VARINT layout, a usual amount takes two to four bytes in all.
+ */
+public class TimeAndMoneyCodec extends TimeCodec {
+    public static final TimeAndMoneyCodec FIXED = new TimeAndMoneyCodec(false);
+    public static final TimeAndMoneyCodec VARINT = new TimeAndMoneyCodec(true);
+
+    private static final int BY_LETTERS = 0;
+    //Version 1 of the format: each currency's three letters and three digits.
+    private static final String NUMBERED_CURRENCIES =
+            "AFA004ALL008DZD012ADP020AZM031ARS032AUD036ATS040BSD044BHD048BDT050AMD051" +
+            "BBD052BEF056BMD060BTN064BOB068BWP072BZD084SBD090BND096BGL100MMK104BIF108" +
+            "BYB112KHR116CAD124CVE132KYD136LKR144CLP152CNY156COP170KMF174CRC188HRK191" +
+            "CUP192CYP196CZK203DKK208DOP214SVC222ETB230ERN232EEK233FKP238FJD242FIM246" +
+            "FRF250DJF262GMD270DEM276GHC288GIP292GRD300GTQ320GNF324GYD328HTG332HNL340" +
+            "HKD344HUF348ISK352INR356IDR360IRR364IQD368IEP372ILS376ITL380JMD388JPY392" +
+            "KZT398JOD400KES404KPW408KRW410KWD414KGS417LAK418LBP422LSL426LVL428LRD430" +
+            "LYD434LTL440LUF442MOP446MGF450MWK454MYR458MVR462MTL470MRO478MUR480MXN484" +
+            "MNT496MDL498MAD504MZM508OMR512NAD516NPR524NLG528ANG532AWG533VUV548NZD554" +
+            "NIO558NGN566NOK578PKR586PAB590PGK598PYG600PEN604PHP608PTE620GWP624TPE626" +
+            "QAR634ROL642RUB643RWF646SHP654STD678SAR682SCR690SLL694SGD702SKK703VND704" +
+            "SIT705SOS706ZAR710ZWD716ESP724SSP728SDD736SRG740SZL748SEK752CHF756SYP760" +
+            "THB764TOP776TTD780AED784TND788TRL792TMM795UGX800MKD807RUR810EGP818GBP826" +
+            "TZS834USD840UYU858UZS860VEB862WST882YER886ZMK894TWD901SLE925VED926VES928" +
+            "MRU929STN930CUC931ZWL932BYN933TMT934ZWR935GHS936VEF937SDG938UYI940RSD941" +
+            "ZWN942MZN943AZN944AYM945RON946CHE947CHW948TRY949XAF950XCD951XOF952XPF953" +
+            "XBA955XBB956XBC957XBD958XAU959XDR960XAG961XPT962XTS963XPD964XUA965ZMW967" +
+            "SRD968MGA969COU970AFN971TJS972AOA973BYR974BGN975CDF976BAM977EUR978MXV979" +
+            "UAH980GEL981BOV984PLN985BRL986CLF990XSU994USN997USS998XXX999";
+    private static final Map NUMBERS = new HashMap();
+    private static final String[] LETTERS = new String[1000];
+
+    static {
+        for (int i = 0; i < NUMBERED_CURRENCIES.length(); i += 6) {
+            String letters = NUMBERED_CURRENCIES.substring(i, i + 3);
+            int number = Integer.parseInt(NUMBERED_CURRENCIES.substring(i + 3, i + 6));
+            NUMBERS.put(letters, Integer.valueOf(number));
+            LETTERS[number] = letters;
+        }
+    }
+
+    private TimeAndMoneyCodec(boolean varint) {
+        super(varint);
+    }
+
+    public void putMoney(ByteBuffer buffer, Money money) {
+        boolean compact = money.isCompact();
+        putCurrency(buffer, money.getCurrency(), !compact);
+        if (compact) {
+            putLong(buffer, money.getMinorUnits());
+            return;
+        }
+        BigDecimal amount = money.getAmount();
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+        putInt(buffer, amount.scale());
+        putInt(buffer, unscaled.length);
+        buffer.put(unscaled);
+    }
+
+    public Money getMoney(ByteBuffer buffer) {
+        int word = getCurrencyWord(buffer);
+        Currency currency = getCurrency(buffer, word);
+        if ((word & 1) == 0)
+            return Money.fromMinorUnits(getLong(buffer), currency);
+        int scale = getInt(buffer);
+        byte[] unscaled = new byte[getLength(buffer)];
+        buffer.get(unscaled);
+        return Money.valueOf(new BigDecimal(new BigInteger(unscaled), scale), currency);
+    }
+
+    /**
+     * Writes the length of the array, then its elements, each with its own
+     * currency.
+     */
+    public void putMonies(ByteBuffer buffer, Money[] monies) {
+        putInt(buffer, monies.length);
+        for (int i = 0; i < monies.length; i++)
+            putMoney(buffer, monies[i]);
+    }
+
+    public Money[] getMonies(ByteBuffer buffer) {
+        Money[] result = new Money[getLength(buffer)];
+        for (int i = 0; i < result.length; i++)
+            result[i] = getMoney(buffer);
+        return result;
+    }
+
+    /**
+     * Writes the currency once, then the length and the minor units; in the
+     * FIXED layout the minor units are copied as a block.
+     */
+    public void putMoneyVector(ByteBuffer buffer, MoneyVector vector) {
+        long[] minorUnits = vector.breachEncapsulationOfMinorUnits();
+        putCurrency(buffer, vector.breachEncapsulationOfCurrency(), false);
+        putInt(buffer, minorUnits.length);
+        if (isVarint()) {
+            for (int i = 0; i < minorUnits.length; i++)
+                putLong(buffer, minorUnits[i]);
+            return;
+        }
+        buffer.asLongBuffer().put(minorUnits);
+        buffer.position(buffer.position() + minorUnits.length * 8);
+    }
+
+    public MoneyVector getMoneyVector(ByteBuffer buffer) {
+        Currency currency = getCurrency(buffer, getCurrencyWord(buffer));
+        long[] minorUnits = new long[getLength(buffer)];
+        if (isVarint()) {
+            for (int i = 0; i < minorUnits.length; i++)
+                minorUnits[i] = getLong(buffer);
+        } else {
+            LongBuffer longs = buffer.asLongBuffer();
+            longs.get(minorUnits);
+            buffer.position(buffer.position() + minorUnits.length * 8);
+        }
+        return MoneyVector.of(minorUnits, currency);
+    }
+
+    //The word is the numeric code times two, plus one if the amount is written in full.
+    private void putCurrency(ByteBuffer buffer, Currency currency, boolean inFull) {
+        Integer number = (Integer) NUMBERS.get(currency.getCurrencyCode());
+        boolean byNumber = number != null;
+        int code = byNumber ? number.intValue() : BY_LETTERS;
+        int word = (code << 1) | (inFull ? 1 : 0);
+        if (isVarint())
+            putInt(buffer, word);
+        else
+            buffer.putShort((short) word);
+        if (!byNumber) {
+            String letters = currency.getCurrencyCode();
+            for (int i = 0; i < 3; i++)
+                buffer.put((byte) letters.charAt(i));
+        }
+    }
+
+    private int getCurrencyWord(ByteBuffer buffer) {
+        return isVarint() ? getInt(buffer) : buffer.getShort();
+    }
+
+    private Currency getCurrency(ByteBuffer buffer, int word) {
+        int code = word >>> 1;
+        if (code == BY_LETTERS) {
+            char[] letters = new char[3];
+            for (int i = 0; i < 3; i++)
+                letters[i] = (char) buffer.get();
+            return Currency.getInstance(new String(letters));
+        }
+        if (code >= LETTERS.length || LETTERS[code] == null)
+            throw new IllegalArgumentException("There is no currency numbered " + code);
+        return Currency.getInstance(LETTERS[code]);
+    }
+}
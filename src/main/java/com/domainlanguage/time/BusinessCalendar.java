@@ -11,7 +11,15 @@ import java.util.*;
 import com.domainlanguage.util.*;
 
 public class BusinessCalendar {
+    private static final long FIRST_MONDAY_AFTER_EPOCH = 4; // 1970-01-05
+
     private Set holidays;
+    /**
+     * The epoch days of the holidays that fall on weekdays, sorted and
+     * without duplicates. Derived from holidays when first needed, so that
+     * business days can be counted rather than iterated.
+     */
+    private volatile long[] weekdayHolidays;
 
     /** Should be rewritten for each particular organization */
     static Set defaultHolidays() {
@@ -23,9 +31,17 @@ public class BusinessCalendar {
     }
     public void addHolidays(Set days) {
         holidays.addAll(days);
+        weekdayHolidays = null;
     }
 
     public int getElapsedBusinessDays(CalendarInterval interval) {
+        if (interval.hasLowerLimit() && interval.hasUpperLimit()) {
+            long start = interval.start().toEpochDay();
+            long end = interval.end().toEpochDay();
+            if (end < start)
+                return 0;
+            return (int) (businessDaysBefore(end + 1) - businessDaysBefore(start));
+        }
         int tally = 0;
         Iterator iterator=businessDaysOnly(interval.daysIterator());
         while (iterator.hasNext()) {
@@ -49,8 +65,8 @@ public class BusinessCalendar {
     }
 
     public boolean isWeekend(CalendarDate day) {
-        Calendar calday = day.asJavaCalendarUniversalZoneMidnight();
-        return (calday.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY) || (calday.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY);
+        int dayOfWeek = day.dayOfWeek();
+        return (dayOfWeek == Calendar.SATURDAY) || (dayOfWeek == Calendar.SUNDAY);
     }
 
     public boolean isBusinessDay(CalendarDate day) {
@@ -83,28 +99,113 @@ public class BusinessCalendar {
         };
     }
     
+    /**
+     * The business day numberOfDays business days after the first business
+     * day on or after startDate.
+     */
     public CalendarDate plusBusinessDays(CalendarDate startDate, int numberOfDays) {
         if (numberOfDays < 0)
             throw new IllegalArgumentException("Negative numberOfDays not supported");
-        Iterator iterator=CalendarInterval.everFrom(startDate).daysIterator();
-        return nextNumberOfBusinessDays(numberOfDays, iterator);
+        //The answer is the day before the earliest day with this many
+        //business days before it.
+        long target = businessDaysBefore(startDate.toEpochDay()) + numberOfDays + 1;
+        long[] holidayIndex = weekdayHolidays();
+        long day = startDate.toEpochDay();
+        //Weekdays needed are target plus the holidays skipped so far; that
+        //only grows as the day moves forward, so iterate to the fixed point.
+        long skipped = countBefore(holidayIndex, day);
+        while (true) {
+            day = earliestDayWithWeekdaysBefore(target + skipped);
+            long nowSkipped = countBefore(holidayIndex, day);
+            if (nowSkipped == skipped)
+                return CalendarDate.fromEpochDay(day - 1);
+            skipped = nowSkipped;
+        }
     }
     
+    /**
+     * The business day numberOfDays business days before the last business
+     * day on or before startDate.
+     */
     public CalendarDate minusBusinessDays(CalendarDate startDate, int numberOfDays) {
         if (numberOfDays < 0)
             throw new IllegalArgumentException("Negative numberOfDays not supported");
-        Iterator iterator=CalendarInterval.everPreceding(startDate).daysInReverseIterator();
-        return nextNumberOfBusinessDays(numberOfDays, iterator);
+        //The answer is the latest day with this many business days before it.
+        long target = businessDaysBefore(startDate.toEpochDay() + 1) - numberOfDays - 1;
+        long[] holidayIndex = weekdayHolidays();
+        long day = startDate.toEpochDay() + 1;
+        long skipped = countBefore(holidayIndex, day);
+        while (true) {
+            day = earliestDayWithWeekdaysBefore(target + skipped + 1) - 1;
+            long nowSkipped = countBefore(holidayIndex, day);
+            if (nowSkipped == skipped)
+                return CalendarDate.fromEpochDay(day);
+            skipped = nowSkipped;
+        }
+    }
+
+    /**
+     * A running count of business days, up to but not including epochDay.
+     * Only differences between counts are meaningful.
+     */
+    private long businessDaysBefore(long epochDay) {
+        return weekdaysBefore(epochDay) - countBefore(weekdayHolidays(), epochDay);
+    }
+
+    /**
+     * Weekdays from FIRST_MONDAY_AFTER_EPOCH up to but not including
+     * epochDay (negative before it).
+     */
+    private static long weekdaysBefore(long epochDay) {
+        long sinceMonday = epochDay - FIRST_MONDAY_AFTER_EPOCH;
+        return 5 * Math.floorDiv(sinceMonday, 7) + Math.min(Math.floorMod(sinceMonday, 7), 5);
+    }
+
+    /**
+     * The inverse of weekdaysBefore(): the least epoch day with that many
+     * weekdays before it. When that is a Saturday, the day before is the
+     * last weekday counted.
+     */
+    private static long earliestDayWithWeekdaysBefore(long weekdays) {
+        long weeks = Math.floorDiv(weekdays, 5);
+        long days = Math.floorMod(weekdays, 5);
+        if (days == 0)
+            return FIRST_MONDAY_AFTER_EPOCH + 7 * weeks - 2;
+        return FIRST_MONDAY_AFTER_EPOCH + 7 * weeks + days;
     }
 
-    private CalendarDate nextNumberOfBusinessDays(int numberOfDays, Iterator calendarDays) {
-        Iterator businessDays=businessDaysOnly(calendarDays);
-        CalendarDate result=null;
-        for (int i=0; i <= numberOfDays; i++) {
-            result=(CalendarDate)businessDays.next();
+    private static long countBefore(long[] sortedEpochDays, long epochDay) {
+        int index = Arrays.binarySearch(sortedEpochDays, epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private long[] weekdayHolidays() {
+        long[] result = weekdayHolidays;
+        if (result == null) {
+            result = indexHolidays();
+            weekdayHolidays = result;
         }
         return result;
     }
+
+    private long[] indexHolidays() {
+        long[] epochDays = new long[holidays.size()];
+        int count = 0;
+        for (Iterator iterator = holidays.iterator(); iterator.hasNext();) {
+            CalendarDate holiday = (CalendarDate) iterator.next();
+            long epochDay = holiday.toEpochDay();
+            //A holiday given with out-of-range fields never equals a real day.
+            if (!isWeekend(holiday) && EpochDays.toDate(epochDay).equals(holiday))
+                epochDays[count++] = epochDay;
+        }
+        Arrays.sort(epochDays, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++)
+            if (distinct == 0 || epochDays[i] != epochDays[distinct - 1])
+                epochDays[distinct++] = epochDays[i];
+        return Arrays.copyOf(epochDays, distinct);
+    }
+
     public CalendarDate nextBusinessDay(CalendarDate startDate) {
         if (isBusinessDay(startDate))
             return plusBusinessDays(startDate, 1);
@@ -168,5 +269,6 @@ public class BusinessCalendar {
     // begrudgingly</rant>
     private void setForPersistentMapping_Holidays(Set holidays) {
         this.holidays = holidays;
+        this.weekdayHolidays = null;
     }
 }
\ No newline at end of file
@@ -11,6 +11,10 @@ import java.util.Calendar;
 import java.util.TimeZone;
 
 public class CalendarDate implements Comparable, Serializable {
+	private static final long serialVersionUID = -7283310173941506620L;
+
+	private static volatile CalendarDateCache cache = new CalendarDateCache(CalendarDateCache.DEFAULT_FIRST_YEAR, CalendarDateCache.DEFAULT_LAST_YEAR);
+
 	private int year;
 	private int month; // 1 based: January = 1, February = 2, ...
 	private int day;
@@ -19,20 +23,43 @@ public class CalendarDate implements Comparable, Serializable {
         return CalendarDate.from(year, month, day);
     }
     
+	/**
+	 * Valid dates within the cached years (1950 to 2099 unless configured
+	 * otherwise) are shared instances rather than new ones.
+	 */
 	public static CalendarDate from(int year, int month, int day) {
-		CalendarDate result =  new CalendarDate(year, month, day);
-		return result;
+		return cache.from(year, month, day);
+	}
+
+	/**
+	 * The inverse of toEpochDay().
+	 */
+	public static CalendarDate fromEpochDay(long epochDay) {
+		return cache.fromEpochDay(epochDay);
+	}
+
+	/**
+	 * Sets the window of years whose dates are cached, discarding the
+	 * instances cached so far. A window costs a reference per day, and may
+	 * be at most 2000 years.
+	 */
+	public static void setCachedYears(int firstYear, int lastYear) {
+		cache = new CalendarDateCache(firstYear, lastYear);
+	}
 
+	public static void resetCachedYears() {
+		setCachedYears(CalendarDateCache.DEFAULT_FIRST_YEAR, CalendarDateCache.DEFAULT_LAST_YEAR);
 	}
 	
 	public static CalendarDate from(String dateString, String pattern) {
-		TimeZone arbitraryZone = TimeZone.getTimeZone("Universal"); 
-		//Any timezone works, as long as the same one is used throughout.
-		TimePoint point = TimePoint.parseFrom(dateString, pattern, arbitraryZone);
-		return CalendarDate.from(point, arbitraryZone);
+		return DatePattern.compile(pattern).parseCalendarDate(dateString);
 	}
 	
 	public static CalendarDate from(TimePoint timePoint, TimeZone zone) {
+		if (ZoneOffsets.covers(zone, timePoint.millisecondsFromEpoc)) {
+			long local = ZoneOffsets.of(zone).localFromUtc(timePoint.millisecondsFromEpoc);
+			return fromEpochDay(Math.floorDiv(local, TimeUnitConversionFactors.millisecondsPerDay));
+		}
 		Calendar calendar = timePoint.asJavaCalendar();
 		calendar.setTimeZone(zone);
 		return CalendarDate._from(calendar);
@@ -58,10 +85,7 @@ public class CalendarDate implements Comparable, Serializable {
 	}
 
 	public String toString(String pattern) {
-		TimeZone arbitraryZone = TimeZone.getTimeZone("Universal"); 
-		//Any timezone works, as long as the same one is used throughout.
-		TimePoint point = startAsTimePoint(arbitraryZone);
-		return point.toString(pattern, arbitraryZone);
+		return DatePattern.compile(pattern).format(this);
 	}
 	
 	public boolean isBefore(CalendarDate other) {
@@ -109,8 +133,12 @@ public class CalendarDate implements Comparable, Serializable {
             this.day == other.day;
     }
 
+	/**
+	 * Distinct days have distinct hash codes.
+	 */
 	public int hashCode() {
-		return year * month * day;
+		long epochDay = toEpochDay();
+		return (int) (epochDay ^ (epochDay >>> 32));
 	}
 
 	public CalendarDate start() {
@@ -154,21 +182,11 @@ public class CalendarDate implements Comparable, Serializable {
 	}
 	
 	public CalendarDate plusDays(int increment) {
-		Calendar calendar = asJavaCalendarUniversalZoneMidnight();
-		calendar.add(Calendar.DATE, increment);
-		int year = calendar.get(Calendar.YEAR);
-		int month = calendar.get(Calendar.MONTH) + 1;
-		int day = calendar.get(Calendar.DATE);
-		return CalendarDate.from(year, month, day);
+		return fromEpochDay(toEpochDay() + increment);
 	}
 
 	public CalendarDate plusMonths(int increment) {
-		Calendar calendar = asJavaCalendarUniversalZoneMidnight();
-		calendar.add(Calendar.MONTH, increment);
-		int year = calendar.get(Calendar.YEAR);
-		int month = calendar.get(Calendar.MONTH) + 1;
-		int day = calendar.get(Calendar.DATE);
-		return CalendarDate.from(year, month, day);
+		return EpochDays.plusMonths(year, month, day, increment);
 	}
 	
 	public CalendarDate plus(Duration length) {
@@ -201,9 +219,18 @@ public class CalendarDate implements Comparable, Serializable {
 	}
 
 	public int dayOfWeek() {
-		Calendar calendar = asJavaCalendarUniversalZoneMidnight();
-		return calendar.get(Calendar.DAY_OF_WEEK);
+		return EpochDays.dayOfWeek(toEpochDay());
 	}
+
+	/**
+	 * Days since 1970-01-01 (negative before it) in the proleptic Gregorian
+	 * calendar. Consecutive days have consecutive epoch days, which makes
+	 * them convenient for counting and iterating without CalendarDates.
+	 */
+	public long toEpochDay() {
+		return EpochDays.fromDate(year, month, day);
+	}
+
     public int breachEncapsulationOf_day() {
         return day;
     }
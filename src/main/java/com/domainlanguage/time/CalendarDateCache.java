@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shared CalendarDate instances for the valid dates of a window of years,
+ * one slot per epoch day, filled as dates are asked for. Dates outside the
+ * window, and dates given with out-of-range fields, are never cached.
+ * Any number of threads may use a cache; when two of them create the same
+ * date at once, both end up with the instance that was stored first.
+ */
+class CalendarDateCache {
+    static final int DEFAULT_FIRST_YEAR = 1950;
+    static final int DEFAULT_LAST_YEAR = 2099;
+    static final int MAXIMUM_YEARS = 2000;
+
+    private final int firstYear;
+    private final int lastYear;
+    private final long firstEpochDay;
+    private final AtomicReferenceArray dates;
+
+    CalendarDateCache(int firstYear, int lastYear) {
+        if (lastYear < firstYear || lastYear - firstYear >= MAXIMUM_YEARS)
+            throw new IllegalArgumentException("Cannot cache the years " + firstYear + " to " + lastYear);
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstEpochDay = EpochDays.fromDate(firstYear, 1, 1);
+        this.dates = new AtomicReferenceArray((int) (EpochDays.fromDate(lastYear + 1, 1, 1) - firstEpochDay));
+    }
+
+    CalendarDate from(int year, int month, int day) {
+        if (year < firstYear || year > lastYear || month < 1 || month > 12 || day < 1 || day > EpochDays.daysInMonth(year, month))
+            return new CalendarDate(year, month, day);
+        int index = (int) (EpochDays.fromDate(year, month, day) - firstEpochDay);
+        CalendarDate cached = (CalendarDate) dates.get(index);
+        if (cached != null)
+            return cached;
+        return store(index, new CalendarDate(year, month, day));
+    }
+
+    CalendarDate fromEpochDay(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        if (index < 0 || index >= dates.length())
+            return EpochDays.toDate(epochDay);
+        CalendarDate cached = (CalendarDate) dates.get((int) index);
+        if (cached != null)
+            return cached;
+        return store((int) index, EpochDays.toDate(epochDay));
+    }
+
+    private CalendarDate store(int index, CalendarDate date) {
+        if (dates.compareAndSet(index, null, date))
+            return date;
+        return (CalendarDate) dates.get(index);
+    }
+
+}
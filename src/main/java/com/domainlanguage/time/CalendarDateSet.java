@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.util.Iterator;
+
+import com.domainlanguage.intervals.BitmapIntervalSet;
+import com.domainlanguage.intervals.IntervalSequence;
+
+/**
+ * A set of CalendarDates, held as a bitmap of their epoch days. Years of
+ * dates made of a few long stretches take little space, and union,
+ * intersection, difference and gaps are fast.
+ */
+public class CalendarDateSet {
+    private final BitmapIntervalSet epochDays;
+
+    public CalendarDateSet() {
+        this(new BitmapIntervalSet());
+    }
+
+    private CalendarDateSet(BitmapIntervalSet epochDays) {
+        this.epochDays = epochDays;
+    }
+
+    /**
+     * The dates of a sequence of bounded CalendarIntervals.
+     */
+    public static CalendarDateSet from(IntervalSequence calendarIntervals) {
+        CalendarDateSet result = new CalendarDateSet();
+        for (Iterator it = calendarIntervals.iterator(); it.hasNext();)
+            result.add((CalendarInterval) it.next());
+        return result;
+    }
+
+    public void add(CalendarDate date) {
+        epochDays.add(date.toEpochDay());
+    }
+
+    public void add(CalendarInterval interval) {
+        assertBounded(interval);
+        if (!interval.isEmpty())
+            epochDays.addRange(interval.start().toEpochDay(), interval.end().toEpochDay());
+    }
+
+    public void remove(CalendarDate date) {
+        epochDays.remove(date.toEpochDay());
+    }
+
+    public void remove(CalendarInterval interval) {
+        assertBounded(interval);
+        if (!interval.isEmpty())
+            epochDays.removeRange(interval.start().toEpochDay(), interval.end().toEpochDay());
+    }
+
+    public boolean includes(CalendarDate date) {
+        return epochDays.contains(date.toEpochDay());
+    }
+
+    public boolean isEmpty() {
+        return epochDays.isEmpty();
+    }
+
+    /**
+     * The number of dates in the set.
+     */
+    public long cardinality() {
+        return epochDays.cardinality();
+    }
+
+    public CalendarDateSet union(CalendarDateSet other) {
+        return new CalendarDateSet(epochDays.union(other.epochDays));
+    }
+
+    public CalendarDateSet intersect(CalendarDateSet other) {
+        return new CalendarDateSet(epochDays.intersect(other.epochDays));
+    }
+
+    public CalendarDateSet minus(CalendarDateSet other) {
+        return new CalendarDateSet(epochDays.difference(other.epochDays));
+    }
+
+    /**
+     * The dates from the first of the set to the last that are not in it.
+     */
+    public CalendarDateSet gaps() {
+        return new CalendarDateSet(epochDays.gaps());
+    }
+
+    /**
+     * The runs of consecutive dates, as CalendarIntervals in order.
+     */
+    public IntervalSequence asIntervalSequence() {
+        IntervalSequence result = new IntervalSequence();
+        long[] ranges = epochDays.ranges();
+        for (int i = 0; i < ranges.length; i += 2)
+            result.add(CalendarInterval.inclusive(CalendarDate.fromEpochDay(ranges[i]), CalendarDate.fromEpochDay(ranges[i + 1])));
+        return result;
+    }
+
+    public boolean equals(Object other) {
+        return other instanceof CalendarDateSet && epochDays.equals(((CalendarDateSet) other).epochDays);
+    }
+
+    public int hashCode() {
+        return epochDays.hashCode();
+    }
+
+    public BitmapIntervalSet breachEncapsulationOfEpochDays() {
+        return epochDays;
+    }
+
+    private static void assertBounded(CalendarInterval interval) {
+        if (!interval.hasLowerLimit() || !interval.hasUpperLimit())
+            throw new IllegalArgumentException("Only bounded intervals can be held in a CalendarDateSet");
+    }
+
+}
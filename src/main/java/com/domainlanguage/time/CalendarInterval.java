@@ -7,11 +7,16 @@
 package com.domainlanguage.time;
 
 import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import com.domainlanguage.intervals.*;
 import com.domainlanguage.util.*;
 
 public abstract class CalendarInterval extends Interval {
+    private static final long serialVersionUID = 4323424254035516684L;
 
     public static CalendarInterval inclusive(CalendarDate start, CalendarDate end) {
         return ConcreteCalendarInterval.from(start, end);
@@ -96,18 +101,15 @@ public abstract class CalendarInterval extends Interval {
     }
 
     public int lengthInMonthsInt() {
-        Calendar calStart = start().asJavaCalendarUniversalZoneMidnight();
-        Calendar calEnd = end().plusDays(1).asJavaCalendarUniversalZoneMidnight();
-        int yearDiff = calEnd.get(Calendar.YEAR) - calStart.get(Calendar.YEAR);
-        int monthDiff = yearDiff * 12 + calEnd.get(Calendar.MONTH) - calStart.get(Calendar.MONTH);
+        CalendarDate start = CalendarDate.fromEpochDay(start().toEpochDay());
+        CalendarDate endExclusive = end().plusDays(1);
+        int yearDiff = endExclusive.breachEncapsulationOf_year() - start.breachEncapsulationOf_year();
+        int monthDiff = yearDiff * 12 + endExclusive.breachEncapsulationOf_month() - start.breachEncapsulationOf_month();
         return monthDiff;
     }
 
     public int lengthInDaysInt() {
-        Calendar calStart = start().asJavaCalendarUniversalZoneMidnight();
-        Calendar calEnd = end().plusDays(1).asJavaCalendarUniversalZoneMidnight();
-        long diffMillis = calEnd.getTimeInMillis() - calStart.getTimeInMillis();
-        return (int) (diffMillis / TimeUnitConversionFactors.millisecondsPerDay);
+        return (int) (end().toEpochDay() + 1 - start().toEpochDay());
     }
 
     public Iterator subintervalIterator(Duration subintervalLength) {
@@ -136,41 +138,105 @@ public abstract class CalendarInterval extends Interval {
         };
     }
 
+    /**
+     * The subintervals subintervalIterator(Duration) answers, as a stream.
+     * Each is computed from its index rather than from the one before, so
+     * the stream is sized and splits evenly to run in parallel.
+     */
+    public Stream<CalendarInterval> subintervals(Duration subintervalLength) {
+        if (TimeUnit.day.compareTo(subintervalLength.normalizedUnit()) > 0)
+            throw new IllegalArgumentException("CalendarIntervals must be a whole number of days or months.");
+        if (subintervalLength.inBaseUnits() == 0)
+            throw new IllegalArgumentException("Subintervals must not be empty");
+        if (!hasLowerLimit() || !hasUpperLimit())
+            throw new IllegalStateException("Cannot enumerate the subintervals of an unbounded interval");
+        final long start = start().toEpochDay();
+        final long end = end().toEpochDay();
+        if (subintervalLength.normalizedUnit().isConvertibleToMilliseconds()) {
+            final long length = subintervalLength.inBaseUnits() / TimeUnitConversionFactors.millisecondsPerDay;
+            return LongStream.range(0, (end - start + 1) / length)
+                .mapToObj(k -> inclusive(CalendarDate.fromEpochDay(start + k * length), CalendarDate.fromEpochDay(start + (k + 1) * length - 1)));
+        }
+        //Adding months depends on the date added to, so the boundaries are found in turn.
+        final long[] starts = subintervalStarts(subintervalLength, start, end);
+        return IntStream.range(0, starts.length - 1)
+            .mapToObj(k -> inclusive(CalendarDate.fromEpochDay(starts[k]), CalendarDate.fromEpochDay(starts[k + 1] - 1)));
+    }
+
+    public Spliterator<CalendarInterval> subintervalSpliterator(Duration subintervalLength) {
+        return subintervals(subintervalLength).spliterator();
+    }
+
+    //The start of each subinterval, then the day after the last.
+    private static long[] subintervalStarts(Duration length, long start, long end) {
+        long[] starts = new long[16];
+        int count = 0;
+        CalendarDate next = CalendarDate.fromEpochDay(start);
+        while (next.toEpochDay() <= end + 1) {
+            if (count == starts.length)
+                starts = Arrays.copyOf(starts, count * 2);
+            starts[count++] = next.toEpochDay();
+            next = next.plus(length);
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
     public Iterator daysIterator() {
-        final CalendarDate start = (CalendarDate) lowerLimit();
-        final CalendarDate end = (CalendarDate) upperLimit();
+        final long end = hasUpperLimit() ? end().toEpochDay() : Long.MAX_VALUE;
+        final long start = start().toEpochDay();
         return new ImmutableIterator() {
-            CalendarDate next = start;
+            long next = start;
 
             public boolean hasNext() {
-                return !next.isAfter(end);
+                return next <= end;
             }
 
             public Object next() {
-                Object current = next;
-                next = next.plusDays(1);
-                return current;
+                return CalendarDate.fromEpochDay(next++);
             }
         };
     }
     public Iterator daysInReverseIterator() {
-        final CalendarDate start = (CalendarDate) upperLimit();
-        final CalendarDate end = (CalendarDate) lowerLimit();
+        final long end = hasLowerLimit() ? start().toEpochDay() : Long.MIN_VALUE;
+        final long start = end().toEpochDay();
         return new ImmutableIterator() {
-            CalendarDate next = start;
+            long next = start;
 
             public boolean hasNext() {
-                return !next.isBefore(end);
+                return next >= end;
             }
 
             public Object next() {
-                Object current = next;
-                next = next.plusDays(-1);
-                return current;
+                return CalendarDate.fromEpochDay(next--);
             }
         };
     }
 
+    /**
+     * The days of this interval as epoch days (see CalendarDate.toEpochDay()),
+     * in order. The stream splits by range, so it can run in parallel.
+     */
+    public LongStream epochDays() {
+        assertBounded();
+        return LongStream.rangeClosed(start().toEpochDay(), end().toEpochDay());
+    }
+
+    public Spliterator.OfLong epochDaySpliterator() {
+        return epochDays().spliterator();
+    }
+
+    public void forEachEpochDay(LongConsumer action) {
+        assertBounded();
+        long end = end().toEpochDay();
+        for (long epochDay = start().toEpochDay(); epochDay <= end; epochDay++)
+            action.accept(epochDay);
+    }
+
+    private void assertBounded() {
+        if (!hasLowerLimit() || !hasUpperLimit())
+            throw new IllegalStateException("Cannot enumerate the days of an unbounded interval");
+    }
+
 
 
 }
\ No newline at end of file
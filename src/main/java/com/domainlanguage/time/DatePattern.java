@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.nio.CharBuffer;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A java.text.SimpleDateFormat pattern, compiled once and usable from any
+ * number of threads at once. Patterns are cached, so compiling the same
+ * pattern again is a map lookup.
+ *
+ * The patterns "yyyy-MM-dd", "yyyy-M-d" and "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"
+ * are formatted and parsed by hand, as long as the default locale's
+ * SimpleDateFormat uses the Gregorian calendar and ASCII digits. Any other
+ * pattern or locale, and any text or date the hand-written code does not
+ * handle exactly as SimpleDateFormat would, goes to a SimpleDateFormat kept
+ * for each thread. Either way the results are the same as those of a new
+ * SimpleDateFormat.
+ *
+ * The appendTo methods write into a buffer supplied by the caller, so that
+ * formatting many dates need not create a String for each.
+ */
+public class DatePattern {
+    private static final int MAXIMUM_CACHED_PATTERNS = 256;
+    private static final Map PATTERNS = new ConcurrentHashMap();
+    private static final TimeZone UNIVERSAL = TimeZone.getTimeZone("Universal");
+    private static final long MILLISECONDS_PER_DAY = TimeUnitConversionFactors.millisecondsPerDay;
+
+    private static final int GENERAL = 0;
+    private static final int ISO_DATE = 1; // yyyy-MM-dd
+    private static final int SHORT_DATE = 2; // yyyy-M-d
+    private static final int ISO_TIMESTAMP = 3; // yyyy-MM-dd'T'HH:mm:ss.SSS'Z'
+
+    private static final ThreadLocal SCRATCH = new ThreadLocal() {
+        protected Object initialValue() {
+            return new StringBuilder(32);
+        }
+    };
+
+    private final String pattern;
+    private final int kind;
+    private final ThreadLocal formats;
+
+    public static DatePattern compile(String pattern) {
+        DatePattern result = (DatePattern) PATTERNS.get(pattern);
+        if (result == null) {
+            if (PATTERNS.size() >= MAXIMUM_CACHED_PATTERNS)
+                PATTERNS.clear();
+            result = new DatePattern(pattern);
+            PATTERNS.put(pattern, result);
+        }
+        return result;
+    }
+
+    private DatePattern(final String pattern) {
+        //Compiled once here, so that a bad pattern fails now rather than on first use.
+        new SimpleDateFormat(pattern);
+        this.pattern = pattern;
+        this.kind = kindOf(pattern);
+        this.formats = new ThreadLocal() {
+            protected Object initialValue() {
+                return new ThreadFormat(new SimpleDateFormat(pattern));
+            }
+        };
+    }
+
+    private static int kindOf(String pattern) {
+        if (pattern.equals("yyyy-MM-dd"))
+            return ISO_DATE;
+        if (pattern.equals("yyyy-M-d"))
+            return SHORT_DATE;
+        if (pattern.equals("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"))
+            return ISO_TIMESTAMP;
+        return GENERAL;
+    }
+
+    public String format(TimePoint point, TimeZone zone) {
+        StringBuilder scratch = scratch();
+        return appendTo(scratch, point, zone).toString();
+    }
+
+    public String format(CalendarDate date) {
+        StringBuilder scratch = scratch();
+        return appendTo(scratch, date).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder out, TimePoint point, TimeZone zone) {
+        long utc = point.millisecondsFromEpoc;
+        if (!isHandWritten() || !ZoneOffsets.covers(zone, utc))
+            return out.append(formatFor(zone).format(new Date(utc)));
+        long local = ZoneOffsets.of(zone).localFromUtc(utc);
+        CalendarDate date = CalendarDate.fromEpochDay(Math.floorDiv(local, MILLISECONDS_PER_DAY));
+        appendDate(out, date.breachEncapsulationOf_year(), date.breachEncapsulationOf_month(), date.breachEncapsulationOf_day());
+        if (kind == ISO_TIMESTAMP)
+            appendTime(out, Math.floorMod(local, MILLISECONDS_PER_DAY));
+        return out;
+    }
+
+    public StringBuilder appendTo(StringBuilder out, CalendarDate date) {
+        int year = date.breachEncapsulationOf_year();
+        int month = date.breachEncapsulationOf_month();
+        int day = date.breachEncapsulationOf_day();
+        if (kind == ISO_TIMESTAMP || !isHandWritten() || !isFastDate(year, month, day))
+            //As a TimePoint, so that the fields of a date not yet
+            //normalized, and all patterns, come out as they always have.
+            return appendTo(out, date.startAsTimePoint(UNIVERSAL), UNIVERSAL);
+        appendDate(out, year, month, day);
+        return out;
+    }
+
+    public CharBuffer appendTo(CharBuffer out, TimePoint point, TimeZone zone) {
+        StringBuilder scratch = scratch();
+        appendTo(scratch, point, zone);
+        return put(out, scratch);
+    }
+
+    public CharBuffer appendTo(CharBuffer out, CalendarDate date) {
+        StringBuilder scratch = scratch();
+        appendTo(scratch, date);
+        return put(out, scratch);
+    }
+
+    /**
+     * As SimpleDateFormat.parse(text, new ParsePosition(0)), which ignores
+     * any text after the date.
+     */
+    public TimePoint parseTimePoint(String text, TimeZone zone) {
+        if (isHandWritten()) {
+            TimePoint result = parseExactly(text, zone);
+            if (result != null)
+                return result;
+        }
+        SimpleDateFormat format = formatFor(zone);
+        Date date = format.parse(text, new ParsePosition(0));
+        return TimePoint.from(date);
+    }
+
+    public CalendarDate parseCalendarDate(String text) {
+        if ((kind == ISO_DATE || kind == SHORT_DATE) && isHandWritten()) {
+            long epochDay = parseDate(text);
+            if (epochDay != Long.MIN_VALUE)
+                return CalendarDate.fromEpochDay(epochDay);
+        }
+        //Any timezone works, as long as the same one is used throughout.
+        return CalendarDate.from(parseTimePoint(text, UNIVERSAL), UNIVERSAL);
+    }
+
+    public String toString() {
+        return pattern;
+    }
+
+    private SimpleDateFormat formatFor(TimeZone zone) {
+        SimpleDateFormat format = ((ThreadFormat) formats.get()).format;
+        format.setTimeZone(zone);
+        return format;
+    }
+
+    private boolean isHandWritten() {
+        return kind != GENERAL && ((ThreadFormat) formats.get()).isGregorianAscii;
+    }
+
+    //CharBuffer.append(CharSequence) would make a String of it first.
+    private static CharBuffer put(CharBuffer out, StringBuilder chars) {
+        for (int i = 0; i < chars.length(); i++)
+            out.put(chars.charAt(i));
+        return out;
+    }
+
+    private static StringBuilder scratch() {
+        StringBuilder scratch = (StringBuilder) SCRATCH.get();
+        scratch.setLength(0);
+        return scratch;
+    }
+
+    /**
+     * Only valid dates of four-digit years after the Gregorian change, for
+     * which the fields are what SimpleDateFormat would print.
+     */
+    private static boolean isFastDate(int year, int month, int day) {
+        return year >= 1583 && year <= 9999 && month >= 1 && month <= 12 && day >= 1 && day <= EpochDays.daysInMonth(year, month);
+    }
+
+    private void appendDate(StringBuilder out, int year, int month, int day) {
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, month, kind == SHORT_DATE ? 1 : 2);
+        out.append('-');
+        appendDigits(out, day, kind == SHORT_DATE ? 1 : 2);
+    }
+
+    private static void appendTime(StringBuilder out, long millisecondOfDay) {
+        int millisecond = (int) millisecondOfDay;
+        out.append('T');
+        appendDigits(out, millisecond / 3600000, 2);
+        out.append(':');
+        appendDigits(out, millisecond / 60000 % 60, 2);
+        out.append(':');
+        appendDigits(out, millisecond / 1000 % 60, 2);
+        out.append('.');
+        appendDigits(out, millisecond % 1000, 3);
+        out.append('Z');
+    }
+
+    private static void appendDigits(StringBuilder out, int value, int minimumDigits) {
+        int digits = value >= 1000 ? 4 : value >= 100 ? 3 : value >= 10 ? 2 : 1;
+        for (int i = digits; i < minimumDigits; i++)
+            out.append('0');
+        out.append(value);
+    }
+
+    /**
+     * The time of text that is exactly in the pattern, with every field in
+     * range, or null for anything else.
+     */
+    private TimePoint parseExactly(String text, TimeZone zone) {
+        if (kind != ISO_TIMESTAMP) {
+            long epochDay = parseDate(text);
+            if (epochDay == Long.MIN_VALUE)
+                return null;
+            CalendarDate date = CalendarDate.fromEpochDay(epochDay);
+            return TimePoint.atMidnight(date.breachEncapsulationOf_year(), date.breachEncapsulationOf_month(), date.breachEncapsulationOf_day(), zone);
+        }
+        if (text.length() != 24 || text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':' ||
+                text.charAt(19) != '.' || text.charAt(23) != 'Z')
+            return null;
+        long epochDay = parseDate(text.substring(0, 10));
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = digits(text, 17, 19);
+        int millisecond = digits(text, 20, 23);
+        if (epochDay == Long.MIN_VALUE || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millisecond < 0)
+            return null;
+        CalendarDate date = CalendarDate.fromEpochDay(epochDay);
+        return TimePoint.at(date.breachEncapsulationOf_year(), date.breachEncapsulationOf_month(), date.breachEncapsulationOf_day(),
+                hour, minute, second, millisecond, zone);
+    }
+
+    /**
+     * The epoch day of text that is exactly a valid date in the pattern, or
+     * Long.MIN_VALUE for anything else.
+     */
+    private long parseDate(String text) {
+        int length = text.length();
+        if (length < 8 || text.charAt(4) != '-')
+            return Long.MIN_VALUE;
+        int secondDash = text.indexOf('-', 5);
+        if (secondDash < 0)
+            return Long.MIN_VALUE;
+        int monthDigits = secondDash - 5;
+        int dayDigits = length - secondDash - 1;
+        boolean widthsFit = kind == SHORT_DATE ?
+                monthDigits >= 1 && monthDigits <= 2 && dayDigits >= 1 && dayDigits <= 2 :
+                monthDigits == 2 && dayDigits == 2;
+        if (!widthsFit)
+            return Long.MIN_VALUE;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, secondDash);
+        int day = digits(text, secondDash + 1, length);
+        if (!isFastDate(year, month, day))
+            return Long.MIN_VALUE;
+        return EpochDays.fromDate(year, month, day);
+    }
+
+    /**
+     * The value of the decimal digits from start to end, or -1 if any of
+     * them is not an ASCII digit.
+     */
+    private static int digits(String text, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static class ThreadFormat {
+        final SimpleDateFormat format;
+        //Whether the format writes dates as the hand-written code does.
+        final boolean isGregorianAscii;
+
+        ThreadFormat(SimpleDateFormat format) {
+            this.format = format;
+            NumberFormat numbers = format.getNumberFormat();
+            //BuddhistCalendar is a GregorianCalendar, with other years.
+            this.isGregorianAscii = format.getCalendar().getClass() == GregorianCalendar.class &&
+                    numbers instanceof DecimalFormat &&
+                    ((DecimalFormat) numbers).getDecimalFormatSymbols().getZeroDigit() == '0';
+        }
+    }
+
+}
@@ -12,6 +12,8 @@ import java.util.*;
 import com.domainlanguage.base.*;
 
 public class Duration implements Comparable, Serializable {
+	private static final long serialVersionUID = 371374193014828520L;
+
 	public static final Duration NONE = milliseconds(0);
 
 	private long quantity;
@@ -76,6 +78,14 @@ public class Duration implements Comparable, Serializable {
 		return quantity * unit.getFactor();
 	}
 
+	long quantity() {
+		return quantity;
+	}
+
+	TimeUnit unit() {
+		return unit;
+	}
+
 	public Duration plus(Duration other) {
 		assertNotConvertible(other);
 		long newQuantity = this.inBaseUnits() + other.inBaseUnits();
@@ -102,23 +112,13 @@ public class Duration implements Comparable, Serializable {
 	public CalendarDate addedTo(CalendarDate day) {
 //		only valid for days and larger units
 		if (unit.compareTo(TimeUnit.day) < 0) return day;
-		Calendar calendar = day.asJavaCalendarUniversalZoneMidnight();
-		if (unit.equals(TimeUnit.day)) 
-			calendar.add(Calendar.DATE, (int) quantity);
-		else 
-            addAmountToCalendar(inBaseUnits(), calendar);
-		return CalendarDate._from(calendar);
+		return addAmountToCalendarDate(inBaseUnits(), day);
 	}
 
 	public CalendarDate subtractedFrom(CalendarDate day) {
 //		only valid for days and larger units
 		if (unit.compareTo(TimeUnit.day) < 0) return day;
-		Calendar calendar = day.asJavaCalendarUniversalZoneMidnight();
-		if (unit.equals(TimeUnit.day)) 
-			calendar.add(Calendar.DATE, -1 * (int)quantity);
-		else 
-            subtractAmountFromCalendar(inBaseUnits(), calendar);
-		return CalendarDate._from(calendar);
+		return addAmountToCalendarDate(-1 * inBaseUnits(), day);
 	}
 
 	public Ratio dividedBy (Duration divisor) {
@@ -186,6 +186,12 @@ public class Duration implements Comparable, Serializable {
             return TimePoint.from(calendar);
         }
     }
+    private CalendarDate addAmountToCalendarDate(long amount, CalendarDate day) {
+        if (unit.isConvertibleToMilliseconds())
+            return CalendarDate.fromEpochDay(day.toEpochDay() + Math.floorDiv(amount, TimeUnitConversionFactors.millisecondsPerDay));
+        assert (amount >= Integer.MIN_VALUE && amount <= Integer.MAX_VALUE);
+        return day.plusMonths((int) amount);
+    }
     void addAmountToCalendar(long amount, Calendar calendar) {
         if (unit.isConvertibleToMilliseconds()) {
             calendar.setTimeInMillis(calendar.getTimeInMillis() + amount);
@@ -206,7 +212,7 @@ public class Duration implements Comparable, Serializable {
         if (quantity < 0)
             throw new IllegalArgumentException("Quantity: "+quantity+" must be zero or positive");
     }
-    private boolean isConvertibleTo(Duration other) {
+    boolean isConvertibleTo(Duration other) {
         return this.unit.isConvertibleTo(other.unit);
     }
     private String toNormalizedString(TimeUnit[] units) {
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+/**
+ * Integer arithmetic on the proleptic Gregorian calendar, counting days from
+ * 1970-01-01 (epoch day 0). It is what CalendarDate uses instead of
+ * java.util.Calendar, which is slow to create and set for each operation.
+ *
+ * The conversions are the era-based algorithms described by Howard Hinnant
+ * in "chrono-Compatible Low-Level Date Algorithms". Years, months and days
+ * out of range are accepted the way a lenient Calendar accepts them: the
+ * month is carried into the year first, then the day is counted from the
+ * start of that month.
+ *
+ * Unlike GregorianCalendar, there is no switch to the Julian calendar before
+ * 1582-10-15; all dates follow the Gregorian rules.
+ */
+class EpochDays {
+    private static final int DAYS_PER_ERA = 146097; // 400 years
+    private static final int DAYS_FROM_YEAR_0_TO_EPOCH = 719468; // 0000-03-01 to 1970-01-01
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    static long fromDate(int year, int month, int day) {
+        long months = (long) month - 1;
+        long y = year + Math.floorDiv(months, 12);
+        int m = (int) Math.floorMod(months, 12L) + 1;
+        return firstOfMonth(y, m) + day - 1;
+    }
+
+    /**
+     * Counting years from March, so that the leap day comes last, day of
+     * year follows from the month by a linear formula.
+     */
+    private static long firstOfMonth(long year, int month) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_YEAR_0_TO_EPOCH;
+    }
+
+    static CalendarDate toDate(long epochDay) {
+        long shifted = epochDay + DAYS_FROM_YEAR_0_TO_EPOCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthFromMarch = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthFromMarch + 2) / 5 + 1);
+        int month = (int) (monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return new CalendarDate((int) year, month, day);
+    }
+
+    static long yearOf(long epochDay) {
+        long shifted = epochDay + DAYS_FROM_YEAR_0_TO_EPOCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        //Years count from March here, so January and February belong to the next.
+        return yearOfEra + era * 400 + (dayOfYear >= 306 ? 1 : 0);
+    }
+
+    /**
+     * As java.util.Calendar.DAY_OF_WEEK: Sunday is 1, Saturday is 7.
+     * 1970-01-01 was a Thursday.
+     */
+    static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7L) + 1;
+    }
+
+    static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int daysInMonth(long year, int month) {
+        if (month == 2 && isLeapYear(year))
+            return 29;
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * As Calendar.add(Calendar.MONTH, increment): the date is first
+     * normalized, then moved by whole months, and the day is clamped to the
+     * length of the resulting month.
+     */
+    static CalendarDate plusMonths(int year, int month, int day, int increment) {
+        CalendarDate normalized = toDate(fromDate(year, month, day));
+        long months = normalized.breachEncapsulationOf_year() * 12L + normalized.breachEncapsulationOf_month() - 1 + increment;
+        long newYear = Math.floorDiv(months, 12);
+        int newMonth = (int) Math.floorMod(months, 12L) + 1;
+        int newDay = Math.min(normalized.breachEncapsulationOf_day(), daysInMonth(newYear, newMonth));
+        return CalendarDate.from((int) newYear, newMonth, newDay);
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.util.Iterator;
+
+import com.domainlanguage.intervals.BitmapIntervalSet;
+import com.domainlanguage.intervals.IntervalSequence;
+
+/**
+ * A set of one-minute slots of time, such as the busy minutes of a
+ * schedule, held as a bitmap of minutes since 1970-01-01T00:00Z. Each slot
+ * starts on a whole UTC minute and lasts one minute.
+ *
+ * Adding a TimeInterval adds every slot it shares any time with, so an
+ * interval that starts or ends within a minute takes up the whole of it.
+ */
+public class MinuteSlotSet {
+    private static final long MILLISECONDS_PER_MINUTE = TimeUnitConversionFactors.millisecondsPerMinute;
+
+    private final BitmapIntervalSet epochMinutes;
+
+    public MinuteSlotSet() {
+        this(new BitmapIntervalSet());
+    }
+
+    private MinuteSlotSet(BitmapIntervalSet epochMinutes) {
+        this.epochMinutes = epochMinutes;
+    }
+
+    /**
+     * The slots of a sequence of bounded TimeIntervals.
+     */
+    public static MinuteSlotSet from(IntervalSequence timeIntervals) {
+        MinuteSlotSet result = new MinuteSlotSet();
+        for (Iterator it = timeIntervals.iterator(); it.hasNext();)
+            result.add((TimeInterval) it.next());
+        return result;
+    }
+
+    /**
+     * Adds the slot the time point falls in.
+     */
+    public void add(TimePoint point) {
+        epochMinutes.add(minuteOf(point.millisecondsFromEpoc));
+    }
+
+    public void add(TimeInterval interval) {
+        assertBounded(interval);
+        long first = firstIncluded(interval);
+        long last = lastIncluded(interval);
+        if (first <= last)
+            epochMinutes.addRange(minuteOf(first), minuteOf(last));
+    }
+
+    /**
+     * Removes every slot the interval shares any time with.
+     */
+    public void remove(TimeInterval interval) {
+        assertBounded(interval);
+        long first = firstIncluded(interval);
+        long last = lastIncluded(interval);
+        if (first <= last)
+            epochMinutes.removeRange(minuteOf(first), minuteOf(last));
+    }
+
+    public boolean includes(TimePoint point) {
+        return epochMinutes.contains(minuteOf(point.millisecondsFromEpoc));
+    }
+
+    public boolean isEmpty() {
+        return epochMinutes.isEmpty();
+    }
+
+    /**
+     * The number of slots, which is the number of minutes they cover.
+     */
+    public long cardinality() {
+        return epochMinutes.cardinality();
+    }
+
+    public MinuteSlotSet union(MinuteSlotSet other) {
+        return new MinuteSlotSet(epochMinutes.union(other.epochMinutes));
+    }
+
+    public MinuteSlotSet intersect(MinuteSlotSet other) {
+        return new MinuteSlotSet(epochMinutes.intersect(other.epochMinutes));
+    }
+
+    public MinuteSlotSet minus(MinuteSlotSet other) {
+        return new MinuteSlotSet(epochMinutes.difference(other.epochMinutes));
+    }
+
+    /**
+     * The slots from the first of the set to the last that are not in it:
+     * the free time between busy slots.
+     */
+    public MinuteSlotSet gaps() {
+        return new MinuteSlotSet(epochMinutes.gaps());
+    }
+
+    /**
+     * The runs of consecutive slots, as TimeIntervals [start, end) in order.
+     */
+    public IntervalSequence asIntervalSequence() {
+        IntervalSequence result = new IntervalSequence();
+        long[] ranges = epochMinutes.ranges();
+        for (int i = 0; i < ranges.length; i += 2) {
+            TimePoint start = TimePoint.from(ranges[i] * MILLISECONDS_PER_MINUTE);
+            TimePoint end = TimePoint.from((ranges[i + 1] + 1) * MILLISECONDS_PER_MINUTE);
+            result.add(TimeInterval.over(start, end));
+        }
+        return result;
+    }
+
+    public boolean equals(Object other) {
+        return other instanceof MinuteSlotSet && epochMinutes.equals(((MinuteSlotSet) other).epochMinutes);
+    }
+
+    public int hashCode() {
+        return epochMinutes.hashCode();
+    }
+
+    public BitmapIntervalSet breachEncapsulationOfEpochMinutes() {
+        return epochMinutes;
+    }
+
+    private static long minuteOf(long milliseconds) {
+        return Math.floorDiv(milliseconds, MILLISECONDS_PER_MINUTE);
+    }
+
+    private static long firstIncluded(TimeInterval interval) {
+        return interval.start().millisecondsFromEpoc + (interval.includesLowerLimit() ? 0 : 1);
+    }
+
+    private static long lastIncluded(TimeInterval interval) {
+        return interval.end().millisecondsFromEpoc - (interval.includesUpperLimit() ? 0 : 1);
+    }
+
+    private static void assertBounded(TimeInterval interval) {
+        if (!interval.hasLowerLimit() || !interval.hasUpperLimit())
+            throw new IllegalArgumentException("Only bounded intervals can be held in a MinuteSlotSet");
+    }
+
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * TimeCodec writes time values to a ByteBuffer, and reads them back, as
+ * the numbers they are built on: a TimePoint as milliseconds since the
+ * epoch, a CalendarDate as its epoch day, a Duration as its quantity and
+ * unit, and an interval as a byte of flags followed by whichever limits it
+ * has. Values are written at the buffer's position, which is advanced, so a
+ * codec works the same on heap, direct and memory-mapped buffers.
+ *
+ * FIXED writes every number at its full width, in the buffer's byte order,
+ * so that records can be found by offset. VARINT writes zig-zag varints,
+ * one to ten bytes each, and writes arrays of TimePoints and CalendarDates
+ * as differences from the element before, which are small for the sorted
+ * sequences of a ledger. The two layouts cannot be read by each other.
+ */
+public class TimeCodec {
+    public static final TimeCodec FIXED = new TimeCodec(false);
+    public static final TimeCodec VARINT = new TimeCodec(true);
+
+    private static final TimeUnit[] UNITS = {TimeUnit.millisecond, TimeUnit.second, TimeUnit.minute, TimeUnit.hour,
+            TimeUnit.day, TimeUnit.week, TimeUnit.month, TimeUnit.quarter, TimeUnit.year};
+
+    private static final int HAS_LOWER = 1;
+    private static final int INCLUDES_LOWER = 2;
+    private static final int HAS_UPPER = 4;
+    private static final int INCLUDES_UPPER = 8;
+
+    private final boolean varint;
+
+    protected TimeCodec(boolean varint) {
+        this.varint = varint;
+    }
+
+    public boolean isVarint() {
+        return varint;
+    }
+
+    public void putTimePoint(ByteBuffer buffer, TimePoint point) {
+        putLong(buffer, point.millisecondsFromEpoc);
+    }
+
+    public TimePoint getTimePoint(ByteBuffer buffer) {
+        return TimePoint.from(getLong(buffer));
+    }
+
+    public void putCalendarDate(ByteBuffer buffer, CalendarDate date) {
+        putInt(buffer, Math.toIntExact(date.toEpochDay()));
+    }
+
+    public CalendarDate getCalendarDate(ByteBuffer buffer) {
+        return CalendarDate.fromEpochDay(getInt(buffer));
+    }
+
+    public void putDuration(ByteBuffer buffer, Duration duration) {
+        buffer.put((byte) indexOf(duration.unit()));
+        putLong(buffer, duration.quantity());
+    }
+
+    public Duration getDuration(ByteBuffer buffer) {
+        int index = buffer.get();
+        if (index < 0 || index >= UNITS.length)
+            throw new IllegalArgumentException("There is no time unit numbered " + index);
+        return new Duration(getLong(buffer), UNITS[index]);
+    }
+
+    public void putTimeInterval(ByteBuffer buffer, TimeInterval interval) {
+        buffer.put(flagsOf(interval.hasLowerLimit(), interval.includesLowerLimit(), interval.hasUpperLimit(), interval.includesUpperLimit()));
+        if (interval.hasLowerLimit())
+            putTimePoint(buffer, interval.start());
+        if (interval.hasUpperLimit())
+            putTimePoint(buffer, interval.end());
+    }
+
+    public TimeInterval getTimeInterval(ByteBuffer buffer) {
+        int flags = buffer.get();
+        TimePoint start = (flags & HAS_LOWER) != 0 ? getTimePoint(buffer) : null;
+        TimePoint end = (flags & HAS_UPPER) != 0 ? getTimePoint(buffer) : null;
+        return TimeInterval.over(start, (flags & INCLUDES_LOWER) != 0, end, (flags & INCLUDES_UPPER) != 0);
+    }
+
+    /**
+     * Calendar intervals always include their limits, so only whether they
+     * have them is written.
+     */
+    public void putCalendarInterval(ByteBuffer buffer, CalendarInterval interval) {
+        buffer.put(flagsOf(interval.hasLowerLimit(), true, interval.hasUpperLimit(), true));
+        if (interval.hasLowerLimit())
+            putCalendarDate(buffer, interval.start());
+        if (interval.hasUpperLimit())
+            putCalendarDate(buffer, interval.end());
+    }
+
+    public CalendarInterval getCalendarInterval(ByteBuffer buffer) {
+        int flags = buffer.get();
+        CalendarDate start = (flags & HAS_LOWER) != 0 ? getCalendarDate(buffer) : null;
+        CalendarDate end = (flags & HAS_UPPER) != 0 ? getCalendarDate(buffer) : null;
+        return CalendarInterval.inclusive(start, end);
+    }
+
+    /**
+     * Writes the length of the array, then its elements.
+     */
+    public void putTimePoints(ByteBuffer buffer, TimePoint[] points) {
+        putInt(buffer, points.length);
+        if (!varint) {
+            LongBuffer longs = buffer.asLongBuffer();
+            for (int i = 0; i < points.length; i++)
+                longs.put(points[i].millisecondsFromEpoc);
+            buffer.position(buffer.position() + points.length * 8);
+            return;
+        }
+        long previous = 0;
+        for (int i = 0; i < points.length; i++) {
+            long milliseconds = points[i].millisecondsFromEpoc;
+            putLong(buffer, milliseconds - previous);
+            previous = milliseconds;
+        }
+    }
+
+    public TimePoint[] getTimePoints(ByteBuffer buffer) {
+        TimePoint[] result = new TimePoint[getLength(buffer)];
+        if (!varint) {
+            LongBuffer longs = buffer.asLongBuffer();
+            for (int i = 0; i < result.length; i++)
+                result[i] = TimePoint.from(longs.get());
+            buffer.position(buffer.position() + result.length * 8);
+            return result;
+        }
+        long previous = 0;
+        for (int i = 0; i < result.length; i++) {
+            previous += getLong(buffer);
+            result[i] = TimePoint.from(previous);
+        }
+        return result;
+    }
+
+    public void putCalendarDates(ByteBuffer buffer, CalendarDate[] dates) {
+        putInt(buffer, dates.length);
+        int previous = 0;
+        for (int i = 0; i < dates.length; i++) {
+            int epochDay = Math.toIntExact(dates[i].toEpochDay());
+            putInt(buffer, varint ? epochDay - previous : epochDay);
+            previous = epochDay;
+        }
+    }
+
+    public CalendarDate[] getCalendarDates(ByteBuffer buffer) {
+        CalendarDate[] result = new CalendarDate[getLength(buffer)];
+        int previous = 0;
+        for (int i = 0; i < result.length; i++) {
+            int epochDay = varint ? previous + getInt(buffer) : getInt(buffer);
+            result[i] = CalendarDate.fromEpochDay(epochDay);
+            previous = epochDay;
+        }
+        return result;
+    }
+
+    /**
+     * Writes a long in this codec's layout: eight bytes, or a zig-zag varint.
+     */
+    public void putLong(ByteBuffer buffer, long value) {
+        if (!varint) {
+            buffer.putLong(value);
+            return;
+        }
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        buffer.put((byte) zigZag);
+    }
+
+    public long getLong(ByteBuffer buffer) {
+        if (!varint)
+            return buffer.getLong();
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = buffer.get();
+            zigZag |= (long) (next & 0x7F) << shift;
+            if (next >= 0)
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+        throw new IllegalArgumentException("A varint is longer than ten bytes");
+    }
+
+    /**
+     * Writes an int in this codec's layout: four bytes, or a zig-zag varint.
+     */
+    public void putInt(ByteBuffer buffer, int value) {
+        if (varint)
+            putLong(buffer, value);
+        else
+            buffer.putInt(value);
+    }
+
+    public int getInt(ByteBuffer buffer) {
+        if (!varint)
+            return buffer.getInt();
+        long value = getLong(buffer);
+        if (value != (int) value)
+            throw new IllegalArgumentException(value + " is too large for an int");
+        return (int) value;
+    }
+
+    /**
+     * Reads the length of an array, checking it against what is left of the
+     * buffer so that a damaged length cannot make a huge array.
+     */
+    protected int getLength(ByteBuffer buffer) {
+        int length = getInt(buffer);
+        if (length < 0 || length > buffer.remaining())
+            throw new IllegalArgumentException("An array of " + length + " cannot be read from " + buffer.remaining() + " bytes");
+        return length;
+    }
+
+    private static byte flagsOf(boolean hasLower, boolean includesLower, boolean hasUpper, boolean includesUpper) {
+        return (byte) ((hasLower ? HAS_LOWER : 0) | (includesLower ? INCLUDES_LOWER : 0) |
+                (hasUpper ? HAS_UPPER : 0) | (includesUpper ? INCLUDES_UPPER : 0));
+    }
+
+    private static int indexOf(TimeUnit unit) {
+        for (int i = 0; i < UNITS.length; i++)
+            if (UNITS[i].equals(unit))
+                return i;
+        throw new IllegalArgumentException("Unknown time unit " + unit);
+    }
+}
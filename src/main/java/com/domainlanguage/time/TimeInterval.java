@@ -7,12 +7,18 @@
 package com.domainlanguage.time;
 
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import com.domainlanguage.intervals.*;
 import com.domainlanguage.util.*;
 
 
 public class TimeInterval extends Interval {
+	private static final long serialVersionUID = 2556585444204574314L;
+
+	private transient LongInterval milliseconds;
 
 	public static TimeInterval over(TimePoint start, boolean closedStart, TimePoint end, boolean closedEnd) {
 		return new TimeInterval(start, closedStart, end, closedEnd);
@@ -73,11 +79,92 @@ public class TimeInterval extends Interval {
 	}
 	
 	public boolean isBefore(TimePoint point) {
-		return isBelow(point);
+		LongInterval inMilliseconds = inMilliseconds();
+		if (inMilliseconds == null)
+			return super.isBelow(point);
+		return inMilliseconds.isBelow(point.millisecondsFromEpoc);
 	}
 
 	public boolean isAfter(TimePoint point) {
-		return isAbove(point);
+		LongInterval inMilliseconds = inMilliseconds();
+		if (inMilliseconds == null)
+			return super.isAbove(point);
+		return inMilliseconds.isAbove(point.millisecondsFromEpoc);
+	}
+
+	public boolean includes(TimePoint point) {
+		LongInterval inMilliseconds = inMilliseconds();
+		if (inMilliseconds == null)
+			return super.includes(point);
+		return inMilliseconds.includes(point.millisecondsFromEpoc);
+	}
+
+	//The comparisons below work on milliseconds when they can,
+	//with the same results as the Comparable ones they bypass.
+	public boolean includes(Comparable value) {
+		if (value instanceof TimePoint)
+			return includes((TimePoint) value);
+		return super.includes(value);
+	}
+
+	public boolean isBelow(Comparable value) {
+		if (value instanceof TimePoint)
+			return isBefore((TimePoint) value);
+		return super.isBelow(value);
+	}
+
+	public boolean isAbove(Comparable value) {
+		if (value instanceof TimePoint)
+			return isAfter((TimePoint) value);
+		return super.isAbove(value);
+	}
+
+	public boolean intersects(Interval other) {
+		if (other instanceof TimeInterval) {
+			LongInterval mine = inMilliseconds();
+			LongInterval theirs = ((TimeInterval) other).inMilliseconds();
+			if (mine != null && theirs != null)
+				return mine.intersects(theirs);
+		}
+		return super.intersects(other);
+	}
+
+	public boolean covers(Interval other) {
+		if (other instanceof TimeInterval) {
+			LongInterval mine = inMilliseconds();
+			LongInterval theirs = ((TimeInterval) other).inMilliseconds();
+			if (mine != null && theirs != null)
+				return mine.covers(theirs);
+		}
+		return super.covers(other);
+	}
+
+	/**
+	 * The same interval in milliseconds from the epoch. An unbounded start
+	 * or end becomes Long.MIN_VALUE or Long.MAX_VALUE. A LongInterval cannot
+	 * end before it starts, so an interval whose end is before its start
+	 * causes an IllegalArgumentException.
+	 */
+	public LongInterval asLongInterval() {
+		LongInterval result = inMilliseconds();
+		if (result == null)
+			throw new IllegalArgumentException("The end of " + this + " is before its start");
+		return result;
+	}
+
+	//Null if the end is before the start, which only the Comparable
+	//comparisons can answer for.
+	private LongInterval inMilliseconds() {
+		LongInterval result = milliseconds;
+		if (result == null) {
+			long start = hasLowerLimit() ? start().millisecondsFromEpoc : Long.MIN_VALUE;
+			long end = hasUpperLimit() ? end().millisecondsFromEpoc : Long.MAX_VALUE;
+			if (start > end)
+				return null;
+			result = LongInterval.over(start, includesLowerLimit() || !hasLowerLimit(), end, includesUpperLimit() || !hasUpperLimit());
+			milliseconds = result;
+		}
+		return result;
 	}
 
 	public Duration length() {
@@ -116,6 +203,49 @@ public class TimeInterval extends Interval {
 		};
 	}
 
+	/**
+	 * The subintervals subintervalIterator(Duration) answers, as a stream.
+	 * Each is computed from its index rather than from the one before, so
+	 * the stream is sized and splits evenly to run in parallel.
+	 */
+	public Stream<TimeInterval> subintervals(Duration subintervalLength) {
+		if (!hasLowerLimit() || !hasUpperLimit())
+			throw new IllegalStateException("Cannot enumerate the subintervals of an unbounded interval");
+		if (subintervalLength.inBaseUnits() == 0)
+			throw new IllegalArgumentException("Subintervals must not be empty");
+		//A subinterval includes its start, so none is covered by an interval that does not.
+		if (!includesLowerLimit())
+			return Stream.empty();
+		final long start = start().millisecondsFromEpoc;
+		final long end = end().millisecondsFromEpoc;
+		if (subintervalLength.normalizedUnit().isConvertibleToMilliseconds()) {
+			final long length = subintervalLength.inBaseUnits();
+			return LongStream.range(0, (end - start) / length)
+				.mapToObj(k -> over(TimePoint.from(start + k * length), TimePoint.from(start + (k + 1) * length)));
+		}
+		//Adding months depends on the date added to, so the boundaries are found in turn.
+		final long[] boundaries = subintervalBoundaries(subintervalLength, start, end);
+		return IntStream.range(0, boundaries.length - 1)
+			.mapToObj(k -> over(TimePoint.from(boundaries[k]), TimePoint.from(boundaries[k + 1])));
+	}
+
+	public Spliterator<TimeInterval> subintervalSpliterator(Duration subintervalLength) {
+		return subintervals(subintervalLength).spliterator();
+	}
+
+	private static long[] subintervalBoundaries(Duration length, long start, long end) {
+		long[] boundaries = new long[16];
+		int count = 0;
+		TimePoint next = TimePoint.from(start);
+		while (next.millisecondsFromEpoc <= end) {
+			if (count == boundaries.length)
+				boundaries = Arrays.copyOf(boundaries, count * 2);
+			boundaries[count++] = next.millisecondsFromEpoc;
+			next = length.addedTo(next);
+		}
+		return Arrays.copyOf(boundaries, count);
+	}
+
 	public TimePoint start() {
 		return (TimePoint) lowerLimit();
 	}
@@ -7,7 +7,6 @@
 package com.domainlanguage.time;
 
 import java.io.*;
-import java.text.*;
 import java.util.*;
 
 public class TimePoint implements Comparable, Serializable {
@@ -52,6 +51,10 @@ public class TimePoint implements Comparable, Serializable {
 	}
 
 	public static TimePoint at(int year, int month, int date, int hour, int minute, int second, int millisecond, TimeZone zone) {
+		long local = EpochDays.fromDate(year, month, date) * TimeUnitConversionFactors.millisecondsPerDay +
+			((hour * 60L + minute) * 60L + second) * 1000L + millisecond;
+		if (ZoneOffsets.covers(zone, local))
+			return from(ZoneOffsets.of(zone).utcFromLocal(local));
 		Calendar calendar = Calendar.getInstance(zone);
 		calendar.set(Calendar.YEAR, year);
 		calendar.set(Calendar.MONTH, month - 1);
@@ -68,10 +71,7 @@ public class TimePoint implements Comparable, Serializable {
 	}
 	
 	public static TimePoint parseFrom(String dateString, String pattern, TimeZone zone) {
-		DateFormat format = new SimpleDateFormat(pattern);
-		format.setTimeZone(zone);
-		Date date = format.parse(dateString, new ParsePosition(0));
-		return from(date);
+		return DatePattern.compile(pattern).parseTimePoint(dateString, zone);
 	}
 	
 	public static TimePoint from(Date javaDate) {
@@ -126,9 +126,7 @@ public class TimePoint implements Comparable, Serializable {
 	}
 
 	public String toString(String pattern, TimeZone zone) {
-		DateFormat format = new SimpleDateFormat(pattern);
-		format.setTimeZone(zone);
-		return format.format(asJavaUtilDate());
+		return DatePattern.compile(pattern).format(this, zone);
 	}
 
 	public boolean isBefore(TimePoint other) {
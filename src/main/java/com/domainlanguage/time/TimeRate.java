@@ -6,6 +6,9 @@
 package com.domainlanguage.time;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.domainlanguage.base.LongArithmetic;
 
 public class TimeRate {
 	private BigDecimal quantity;
@@ -36,6 +39,65 @@ public class TimeRate {
 		return duration.dividedBy(unit).times(quantity).decimalValue(scale, roundRule);
 	}
 
+	/**
+	 * The quantities over each of the durations, as over(duration, scale,
+	 * roundRule) would answer them, but as unscaled values: each is the
+	 * quantity times 10^scale. The rate is brought to a single fraction of
+	 * the base unit (milliseconds or months) once, so that each duration
+	 * costs a multiplication and a division of longs.
+	 */
+	public long[] unscaledOver(Duration[] durations, int scale, int roundRule) {
+		long[] baseUnits = new long[durations.length];
+		for (int i = 0; i < durations.length; i++) {
+			if (!durations[i].isConvertibleTo(unit))
+				throw new IllegalArgumentException(durations[i] + " is not convertible to: " + unit);
+			baseUnits[i] = durations[i].inBaseUnits();
+		}
+		return unscaledOverBaseUnits(baseUnits, scale, roundRule);
+	}
+
+	/**
+	 * As unscaledOver(Duration[], int, int), over the time from each start
+	 * to the end at the same index.
+	 */
+	public long[] unscaledOver(TimePoint[] starts, TimePoint[] ends, int scale, int roundRule) {
+		if (starts.length != ends.length)
+			throw new IllegalArgumentException("There are " + starts.length + " starts but " + ends.length + " ends");
+		if (!unit.normalizedUnit().isConvertibleToMilliseconds())
+			throw new IllegalArgumentException("A rate per " + unit + " cannot be applied to the time between two points");
+		long[] milliseconds = new long[starts.length];
+		for (int i = 0; i < starts.length; i++) {
+			milliseconds[i] = ends[i].millisecondsFromEpoc - starts[i].millisecondsFromEpoc;
+			if (milliseconds[i] < 0)
+				throw new IllegalArgumentException(ends[i] + " is before " + starts[i]);
+		}
+		return unscaledOverBaseUnits(milliseconds, scale, roundRule);
+	}
+
+	private long[] unscaledOverBaseUnits(long[] baseUnits, int scale, int roundRule) {
+		//quantity * 10^scale / unit, per base unit, as numerator / denominator.
+		BigInteger numerator = quantity.unscaledValue();
+		BigInteger denominator = BigInteger.valueOf(unit.inBaseUnits());
+		int exponent = scale - quantity.scale();
+		if (exponent >= 0)
+			numerator = numerator.multiply(BigInteger.TEN.pow(exponent));
+		else
+			denominator = denominator.multiply(BigInteger.TEN.pow(-exponent));
+		long[] result = new long[baseUnits.length];
+		if (numerator.bitLength() < 64 && denominator.bitLength() < 64) {
+			long n = numerator.longValue();
+			long d = denominator.longValue();
+			for (int i = 0; i < baseUnits.length; i++)
+				result[i] = LongArithmetic.timesDivide(n, baseUnits[i], d, roundRule);
+			return result;
+		}
+		BigDecimal n = new BigDecimal(numerator);
+		BigDecimal d = new BigDecimal(denominator);
+		for (int i = 0; i < baseUnits.length; i++)
+			result[i] = n.multiply(BigDecimal.valueOf(baseUnits[i])).divide(d, 0, roundRule).longValueExact();
+		return result;
+	}
+
 	public boolean equals(Object another) {
 		try {
             return equals((TimeRate)another);
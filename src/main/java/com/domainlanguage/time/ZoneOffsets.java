@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The UTC offsets of one TimeZone, as tables of the offset transitions in
+ * each year, so that converting between instants and local date and time
+ * takes a binary search instead of setting up a java.util.Calendar.
+ *
+ * Tables are built on first use, for the UTC years from FIRST_YEAR to
+ * LAST_YEAR. A year's transitions are found by sampling the zone every hour
+ * and searching for the exact millisecond of each change, so two changes
+ * less than an hour apart that cancel out are not seen. Outside those
+ * years, and for zones whose class cannot be a cache key, callers should
+ * use Calendar.
+ *
+ * Local times are resolved the way GregorianCalendar resolves them: a
+ * local time skipped by a transition is read with the offset from before
+ * it, and a local time that occurs twice is read with the offset from after
+ * the transition (the later instant).
+ */
+class ZoneOffsets {
+    static final int FIRST_YEAR = 1900;
+    static final int LAST_YEAR = 2100;
+    private static final int MAXIMUM_CACHED_ZONES = 256;
+    private static final long MILLISECONDS_PER_HOUR = TimeUnitConversionFactors.millisecondsPerHour;
+    private static final long MILLISECONDS_PER_DAY = TimeUnitConversionFactors.millisecondsPerDay;
+
+    private static final Map ZONES = new ConcurrentHashMap();
+    //Whether a TimeZone class overrides equals(), without which a copy of
+    //the zone would never find the tables cached under it.
+    private static final ClassValue COMPARABLE_BY_VALUE = new ClassValue() {
+        protected Object computeValue(Class type) {
+            try {
+                return Boolean.valueOf(type.getMethod("equals", new Class[] {Object.class}).getDeclaringClass() != Object.class);
+            } catch (NoSuchMethodException ex) {
+                return Boolean.FALSE;
+            }
+        }
+    };
+
+    private final TimeZone zone;
+    private final AtomicReferenceArray years = new AtomicReferenceArray(LAST_YEAR - FIRST_YEAR + 1);
+
+    /**
+     * The zone is copied, both for the table and as the cache key, so a
+     * zone changed after this call gets tables of its own. Only for zones
+     * which covers() the time.
+     */
+    static ZoneOffsets of(TimeZone zone) {
+        ZoneOffsets result = (ZoneOffsets) ZONES.get(zone);
+        if (result == null) {
+            if (ZONES.size() >= MAXIMUM_CACHED_ZONES)
+                ZONES.clear();
+            TimeZone copy = (TimeZone) zone.clone();
+            result = new ZoneOffsets(copy);
+            ZONES.put(copy, result);
+        }
+        return result;
+    }
+
+    static boolean covers(TimeZone zone, long utcOrLocalMilliseconds) {
+        if (!((Boolean) COMPARABLE_BY_VALUE.get(zone.getClass())).booleanValue())
+            return false;
+        long year = EpochDays.yearOf(Math.floorDiv(utcOrLocalMilliseconds, MILLISECONDS_PER_DAY));
+        //A day's margin either way, so that neighbouring years are covered too.
+        return year > FIRST_YEAR && year < LAST_YEAR;
+    }
+
+    private ZoneOffsets(TimeZone zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * As TimeZone.getOffset(long), for instants that covers().
+     */
+    int offsetAt(long utcMilliseconds) {
+        YearTable table = tableFor(utcMilliseconds);
+        int index = lastAtOrBefore(table.transitions, utcMilliseconds);
+        return index < 0 ? table.offsetAtStart : table.offsetsAfter[index];
+    }
+
+    long localFromUtc(long utcMilliseconds) {
+        return utcMilliseconds + offsetAt(utcMilliseconds);
+    }
+
+    /**
+     * The instant of a local time, given in milliseconds as if the local
+     * time were UTC. A transition applies from the local time at which it
+     * takes effect in its new offset.
+     */
+    long utcFromLocal(long localMilliseconds) {
+        YearTable later = tableFor(localMilliseconds + MILLISECONDS_PER_DAY);
+        int index = lastAtOrBefore(later.localStarts, localMilliseconds);
+        if (index >= 0)
+            return localMilliseconds - later.offsetsAfter[index];
+        YearTable earlier = tableFor(localMilliseconds - MILLISECONDS_PER_DAY);
+        if (earlier == later)
+            return localMilliseconds - later.offsetAtStart;
+        index = lastAtOrBefore(earlier.localStarts, localMilliseconds);
+        return localMilliseconds - (index < 0 ? earlier.offsetAtStart : earlier.offsetsAfter[index]);
+    }
+
+    private YearTable tableFor(long milliseconds) {
+        int year = (int) EpochDays.yearOf(Math.floorDiv(milliseconds, MILLISECONDS_PER_DAY));
+        int index = year - FIRST_YEAR;
+        YearTable table = (YearTable) years.get(index);
+        if (table == null) {
+            table = new YearTable(zone, year);
+            years.set(index, table);
+        }
+        return table;
+    }
+
+    private static int lastAtOrBefore(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+        return high;
+    }
+
+    private static class YearTable {
+        final int offsetAtStart;
+        final long[] transitions;
+        final int[] offsetsAfter;
+        //When each transition takes effect, in local time after it.
+        final long[] localStarts;
+
+        YearTable(TimeZone zone, int year) {
+            long start = EpochDays.fromDate(year, 1, 1) * MILLISECONDS_PER_DAY;
+            long end = EpochDays.fromDate(year + 1, 1, 1) * MILLISECONDS_PER_DAY;
+            //Start just before the year, so that a change exactly at its
+            //start is a transition of this year.
+            long last = end - 1;
+            offsetAtStart = zone.getOffset(start - 1);
+            long[] foundTransitions = new long[8];
+            int[] foundOffsets = new int[8];
+            int count = 0;
+            int offset = offsetAtStart;
+            for (long sample = start - 1; sample < last; sample += MILLISECONDS_PER_HOUR) {
+                long next = Math.min(sample + MILLISECONDS_PER_HOUR, last);
+                int nextOffset = zone.getOffset(next);
+                if (nextOffset == offset)
+                    continue;
+                if (count == foundTransitions.length) {
+                    foundTransitions = Arrays.copyOf(foundTransitions, count * 2);
+                    foundOffsets = Arrays.copyOf(foundOffsets, count * 2);
+                }
+                foundTransitions[count] = firstChange(zone, sample, next, offset);
+                foundOffsets[count] = nextOffset;
+                count++;
+                offset = nextOffset;
+            }
+            transitions = Arrays.copyOf(foundTransitions, count);
+            offsetsAfter = Arrays.copyOf(foundOffsets, count);
+            localStarts = new long[count];
+            for (int i = 0; i < count; i++)
+                localStarts[i] = transitions[i] + offsetsAfter[i];
+        }
+
+        /**
+         * The first millisecond in (before, after] whose offset differs from
+         * the one at before.
+         */
+        private static long firstChange(TimeZone zone, long before, long after, int offsetBefore) {
+            while (after - before > 1) {
+                long middle = before + (after - before) / 2;
+                if (zone.getOffset(middle) == offsetBefore)
+                    before = middle;
+                else
+                    after = middle;
+            }
+            return after;
+        }
+    }
+
+}
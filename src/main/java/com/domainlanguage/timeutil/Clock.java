@@ -10,8 +10,8 @@ import java.util.TimeZone;
 import com.domainlanguage.time.*;
 
 public class Clock {
-	private static TimeSource timeSource;
-	private static TimeZone defaultTimeZone;
+	private static volatile TimeSource timeSource;
+	private static volatile TimeZone defaultTimeZone;
 
 	public static TimeZone defaultTimeZone() {
 		//There is no reasonable automatic default.
@@ -23,10 +23,12 @@ public class Clock {
 	}
 	
 	public static TimeSource timeSource() {
-		if (timeSource==null) {
-			setTimeSource(SystemClock.timeSource());
+		TimeSource result = timeSource;
+		if (result==null) {
+			result = SystemClock.timeSource();
+			setTimeSource(result);
 		}
-		return timeSource;
+		return result;
 	}
 	
 	public static void setTimeSource(TimeSource timeSource) {
@@ -38,8 +40,9 @@ public class Clock {
 	}
 	
 	public static CalendarDate today() {
-		if (defaultTimeZone()==null) throw new RuntimeException("CalendarDate cannot be computed without setting a default TimeZone.");
-		return now().calendarDate(defaultTimeZone());
+		TimeZone zone = defaultTimeZone();
+		if (zone==null) throw new RuntimeException("CalendarDate cannot be computed without setting a default TimeZone.");
+		return now().calendarDate(zone);
 	}
 
 	public static void reset() {
@@ -19,6 +19,7 @@ import com.domainlanguage.time.*;
 public class NISTClient {
 	static final String SERVER_DEFAULT="time.nist.gov";
 	static final int PORT_DEFAULT=13;
+	static final int TIMEOUT_DEFAULT=5000;
 	
     public static TimeSource timeSource() {
         return timeSource(SERVER_DEFAULT, PORT_DEFAULT);
@@ -38,12 +39,30 @@ public class NISTClient {
 	}
 
 	static TimePoint now(String serverName, int port) throws IOException {
+		return now(serverName, port, TIMEOUT_DEFAULT);
+	}
+
+	/**
+	 * Asks the server for the time, giving up with an IOException if it
+	 * cannot be reached, or does not answer, within the timeout.
+	 */
+	static TimePoint now(String serverName, int port, int timeoutMilliseconds) throws IOException {
 		byte buffer[] = new byte[256];
-		Socket socket = new Socket(serverName, port);
+		Socket socket = new Socket();
 		try {
-			int length = socket.getInputStream().read(buffer);
-			String nistTime = new String(buffer, 0, length);
-			return asTimePoint(nistTime);
+			socket.connect(new InetSocketAddress(serverName, port), timeoutMilliseconds);
+			socket.setSoTimeout(timeoutMilliseconds);
+			InputStream in = socket.getInputStream();
+			int length = 0;
+			int read;
+			while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) != -1)
+				length += read;
+			String nistTime = new String(buffer, 0, length, "US-ASCII");
+			try {
+				return asTimePoint(nistTime);
+			} catch (RuntimeException unexpectedAnswer) {
+				throw new IOException("Unexpected answer from " + serverName + ": " + nistTime.trim());
+			}
 		} finally {
 			socket.close();
 		}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.timeutil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
+import com.domainlanguage.time.TimeSource;
+
+/**
+ * A TimeSource kept in step with NIST daytime servers. Each synchronization
+ * asks the servers in turn, starting with the last one to answer, until one
+ * answers within the timeout, and records the time it gave against
+ * System.nanoTime(). now() then adds the nanoseconds elapsed since, so it
+ * does no I/O.
+ *
+ * The daytime protocol answers in whole seconds, so a new synchronization
+ * may put the time behind what was last answered. Rather than go
+ * backwards, now() then answers the time it had reached when the new
+ * synchronization was made until the new one catches up with it.
+ *
+ * Between start() and stop() a daemon thread synchronizes once per polling
+ * interval. A failed synchronization keeps the last offset; only if there
+ * has never been one does now() try to synchronize itself, and fail with a
+ * RuntimeException when no server answers.
+ */
+public class SynchronizedNISTTimeSource implements TimeSource {
+    private static final TimePoint EPOCH = TimePoint.from(0);
+    private static final long NANOSECONDS_PER_MILLISECOND = 1000000;
+
+    private final InetSocketAddress[] servers;
+    private final int timeoutMilliseconds;
+    private final long pollingMilliseconds;
+    private volatile Synchronization synchronization;
+    private int preferredServer;
+    private ScheduledExecutorService poller;
+
+    /**
+     * A started source, polling time.nist.gov.
+     */
+    public static SynchronizedNISTTimeSource polling(Duration pollingInterval) {
+        InetSocketAddress[] servers = {InetSocketAddress.createUnresolved(NISTClient.SERVER_DEFAULT, NISTClient.PORT_DEFAULT)};
+        SynchronizedNISTTimeSource result = new SynchronizedNISTTimeSource(servers, NISTClient.TIMEOUT_DEFAULT, pollingInterval);
+        result.start();
+        return result;
+    }
+
+    /**
+     * The server addresses may be unresolved; each is looked up again
+     * whenever it is asked.
+     */
+    public SynchronizedNISTTimeSource(InetSocketAddress[] servers, int timeoutMilliseconds, Duration pollingInterval) {
+        if (servers.length == 0)
+            throw new IllegalArgumentException("At least one server is needed");
+        if (timeoutMilliseconds <= 0)
+            throw new IllegalArgumentException("The timeout must be longer than zero, not " + timeoutMilliseconds);
+        this.servers = servers.clone();
+        this.timeoutMilliseconds = timeoutMilliseconds;
+        this.pollingMilliseconds = pollingInterval.addedTo(EPOCH).asJavaUtilDate().getTime();
+        if (pollingMilliseconds <= 0)
+            throw new IllegalArgumentException("The polling interval must be longer than zero, not " + pollingInterval);
+    }
+
+    public TimePoint now() {
+        Synchronization current = synchronization;
+        if (current == null) {
+            if (!synchronize())
+                throw new RuntimeException("Problem obtaining network time: no server answered");
+            current = synchronization;
+        }
+        return TimePoint.from(current.millisecondsAt(System.nanoTime()));
+    }
+
+    /**
+     * Asks the servers for the time until one answers, and answers whether
+     * one did.
+     */
+    public boolean synchronize() {
+        synchronized (servers) {
+            return synchronizeWithServers();
+        }
+    }
+
+    private boolean synchronizeWithServers() {
+        for (int attempt = 0; attempt < servers.length; attempt++) {
+            int index = (preferredServer + attempt) % servers.length;
+            InetSocketAddress server = servers[index];
+            long before = System.nanoTime();
+            TimePoint serverTime;
+            try {
+                serverTime = NISTClient.now(server.getHostString(), server.getPort(), timeoutMilliseconds);
+            } catch (IOException unreachable) {
+                continue;
+            }
+            long after = System.nanoTime();
+            //The answer is taken to have been given halfway through the exchange.
+            long midpoint = before + (after - before) / 2;
+            Synchronization previous = synchronization;
+            long floor = previous == null ? Long.MIN_VALUE : previous.millisecondsAt(System.nanoTime());
+            synchronization = new Synchronization(midpoint, serverTime.asJavaUtilDate().getTime(), floor);
+            preferredServer = index;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isSynchronized() {
+        return synchronization != null;
+    }
+
+    public synchronized void start() {
+        if (poller != null)
+            return;
+        poller = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "SynchronizedNISTTimeSource poller");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        poller.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                synchronize();
+            }
+        }, 0, pollingMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling. The source goes on answering from the last
+     * synchronization.
+     */
+    public void stop() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = poller;
+            poller = null;
+        }
+        if (stopping != null)
+            stopping.shutdownNow();
+    }
+
+    public synchronized boolean isPolling() {
+        return poller != null;
+    }
+
+    private static class Synchronization {
+        private final long nanoTime;
+        private final long milliseconds;
+        //The last time the synchronization before this one could answer.
+        private final long floor;
+
+        Synchronization(long nanoTime, long milliseconds, long floor) {
+            this.nanoTime = nanoTime;
+            this.milliseconds = milliseconds;
+            this.floor = floor;
+        }
+
+        long millisecondsAt(long now) {
+            return Math.max(floor, milliseconds + (now - nanoTime) / NANOSECONDS_PER_MILLISECOND);
+        }
+    }
+}
@@ -6,21 +6,21 @@
 
 package com.domainlanguage.timeutil;
 
-import java.util.*;
-
 import com.domainlanguage.time.*;
 
 public class SystemClock {
     
+    private static final TimeSource TIME_SOURCE = new TimeSource() {
+        public TimePoint now() {
+            return SystemClock.now();
+        }
+    };
+
     public static TimeSource timeSource() {
-        return new TimeSource() {
-            public TimePoint now() {
-                return SystemClock.now();
-            }
-        };
+        return TIME_SOURCE;
     }
 
     public static TimePoint now() {
-        return TimePoint.from(new Date());
+        return TimePoint.from(System.currentTimeMillis());
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.timeutil;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
+import com.domainlanguage.time.TimeSource;
+
+/**
+ * A TimeSource which answers the TimePoint its source answered at the last
+ * tick, so that now() is a single read, creating nothing, at the cost of
+ * being up to one resolution behind. A daemon thread asks the source once
+ * per resolution between start() and stop(); while it is stopped, or if the
+ * source failed at the last tick, now() asks the source directly.
+ */
+public class TickingTimeSource implements TimeSource {
+    private static final TimePoint EPOCH = TimePoint.from(0);
+
+    private final TimeSource source;
+    private final long resolutionMilliseconds;
+    private volatile TimePoint latest;
+    //Changed by every start() and stop(), so a tick that outlives them can
+    //tell that its answer is no longer wanted.
+    private volatile int generation;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * A started source that ticks off the system clock.
+     */
+    public static TickingTimeSource ticking(Duration resolution) {
+        TickingTimeSource result = new TickingTimeSource(SystemClock.timeSource(), resolution);
+        result.start();
+        return result;
+    }
+
+    public TickingTimeSource(TimeSource source, Duration resolution) {
+        this.source = source;
+        this.resolutionMilliseconds = resolution.addedTo(EPOCH).asJavaUtilDate().getTime();
+        if (resolutionMilliseconds <= 0)
+            throw new IllegalArgumentException("The resolution must be longer than zero, not " + resolution);
+    }
+
+    public TimePoint now() {
+        TimePoint result = latest;
+        return result == null ? source.now() : result;
+    }
+
+    public synchronized void start() {
+        if (ticker != null)
+            return;
+        ticker = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "TickingTimeSource ticker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final int started = ++generation;
+        tick(started);
+        ticker.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                tick(started);
+            }
+        }, resolutionMilliseconds, resolutionMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the ticker thread, after which now() asks the source directly,
+     * even if a tick is still waiting on the source.
+     */
+    public synchronized void stop() {
+        if (ticker == null)
+            return;
+        generation++;
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(resolutionMilliseconds + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+        latest = null;
+    }
+
+    public synchronized boolean isTicking() {
+        return ticker != null;
+    }
+
+    private void tick(int started) {
+        try {
+            latest = source.now();
+            //stop() may have come while the source was answering; it has
+            //cleared latest before this, or will after.
+            if (generation != started)
+                latest = null;
+        } catch (RuntimeException ex) {
+            //Rather than answer a time that is no longer moving, let now()
+            //ask the source, and fail to its caller, until the next tick.
+            latest = null;
+        }
+    }
+}
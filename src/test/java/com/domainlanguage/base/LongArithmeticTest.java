@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.base;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LongArithmeticTest {
+    private static final int[] MODES = {Rounding.UP, Rounding.DOWN, Rounding.CEILING, Rounding.FLOOR,
+            Rounding.HALF_UP, Rounding.HALF_DOWN, Rounding.HALF_EVEN};
+
+    @Test
+    public void testDivideRoundsLikeBigDecimal() {
+        long[] values = {0, 1, -1, 2, -2, 3, -3, 5, -5, 7, -7, 10, -10, 15, -15, 25, -25,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+        for (int i = 0; i < values.length; i++)
+            for (int j = 0; j < values.length; j++)
+                if (values[j] != 0 && !(values[i] == Long.MIN_VALUE && values[j] == -1))
+                    for (int m = 0; m < MODES.length; m++)
+                        assertDivision(values[i], values[j], MODES[m]);
+    }
+
+    @Test
+    public void testTimesDivideRoundsLikeBigDecimal() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            long a = random.nextLong() >> random.nextInt(64);
+            long b = random.nextLong() >> random.nextInt(64);
+            long c = (random.nextLong() >> random.nextInt(64)) | 1;
+            int mode = MODES[random.nextInt(MODES.length)];
+            BigDecimal expected = new BigDecimal(a).multiply(new BigDecimal(b)).divide(new BigDecimal(c), 0, mode);
+            if (expected.unscaledValue().bitLength() < 64)
+                assertEquals(expected.longValue(), LongArithmetic.timesDivide(a, b, c, mode));
+        }
+    }
+
+    @Test
+    public void testOverflow() {
+        try {
+            LongArithmetic.divide(Long.MIN_VALUE, -1, Rounding.DOWN);
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+        try {
+            LongArithmetic.timesDivide(Long.MAX_VALUE, 4, 3, Rounding.DOWN);
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testUnnecessaryRounding() {
+        LongArithmetic.divide(10, 3, Rounding.UNNECESSARY);
+    }
+
+    private void assertDivision(long dividend, long divisor, int mode) {
+        BigDecimal expected = new BigDecimal(dividend).divide(new BigDecimal(divisor), 0, mode);
+        assertEquals(dividend + "/" + divisor + " mode " + mode, expected.longValue(), LongArithmetic.divide(dividend, divisor, mode));
+    }
+}
@@ -8,10 +8,12 @@ package com.domainlanguage.base;
 
 import org.junit.Test;
 
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class RatioTest {
 
@@ -67,4 +69,104 @@ public class RatioTest {
         Ratio expectedProduct = Ratio.of(27003, 6000);
         assertEquals(expectedProduct, r1.times(r2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLowestTerms() {
+        assertEquals("1/2", Ratio.of(100, 200).toString());
+        assertEquals("-1/2", Ratio.of(3, -6).toString());
+        assertEquals("0/1", Ratio.of(0, -7).toString());
+        assertEquals(Ratio.of(-1, 2), Ratio.of(1, -2));
+        assertEquals(Ratio.of(1, 2).hashCode(), Ratio.of(new BigDecimal("0.5"), new BigDecimal("1.00")).hashCode());
+        assertEquals(new BigDecimal(-1), Ratio.of(3, -6).breachEncapsulationOfNumerator());
+        assertEquals(new BigDecimal(2), Ratio.of(3, -6).breachEncapsulationOfDenominator());
+        assertEquals(Ratio.of(11, 10), Ratio.of(new BigDecimal("1.1")));
+        assertEquals(Ratio.of(1500, 1), Ratio.of(new BigDecimal("1.5E+3")));
+    }
+
+    @Test
+    public void testCommonRatiosAreShared() {
+        assertSame(Ratio.of(1, 2), Ratio.of(50, 100));
+        assertSame(Ratio.of(2, 3), Ratio.of(new BigDecimal("4"), new BigDecimal("6")));
+        assertSame(Ratio.of(1, 1), Ratio.of(3, 4).times(Ratio.of(4, 3)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testZeroDenominator() {
+        Ratio.of(1, 0);
+    }
+
+    @Test
+    public void testRepeatedMultiplicationStaysReduced() {
+        Ratio ratio = Ratio.of(1, 1);
+        for (int i = 0; i < 1000; i++)
+            ratio = ratio.times(Ratio.of(3, 2)).times(Ratio.of(new BigDecimal("0.6"), new BigDecimal("0.9")));
+        assertEquals(Ratio.of(1, 1), ratio);
+    }
+
+    @Test
+    public void testPromotionBeyondLong() {
+        Ratio large = Ratio.of(Long.MAX_VALUE, 3);
+        Ratio product = large.times(large);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        assertEquals(new BigDecimal(max.multiply(max)), product.breachEncapsulationOfNumerator());
+        assertEquals(new BigDecimal(9), product.breachEncapsulationOfDenominator());
+        assertEquals(Ratio.of(new BigDecimal(max.multiply(max)), new BigDecimal(9)), product);
+        assertEquals(large, product.times(Ratio.of(3, Long.MAX_VALUE)));
+        assertEquals("-9223372036854775808/1", Ratio.of(Long.MIN_VALUE, 1).toString());
+        assertEquals(Ratio.of(-1, 1), Ratio.of(Long.MIN_VALUE, Long.MIN_VALUE).times(Ratio.of(-1, 1)));
+        assertEquals(Ratio.of(1L << 62, 1), Ratio.of(Long.MIN_VALUE, -2));
+    }
+
+    @Test
+    public void testSameValuesAsBigDecimal() {
+        Random random = new Random(17);
+        int[] modes = {Rounding.UP, Rounding.DOWN, Rounding.CEILING, Rounding.FLOOR, Rounding.HALF_UP, Rounding.HALF_DOWN, Rounding.HALF_EVEN};
+        for (int i = 0; i < 20000; i++) {
+            long numerator = random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(20001) - 10000;
+            long denominator = random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(1000) + 1;
+            if (denominator == 0)
+                continue;
+            int scale = random.nextInt(22) - 2;
+            int mode = modes[random.nextInt(modes.length)];
+            BigDecimal expected = BigDecimal.valueOf(numerator).divide(BigDecimal.valueOf(denominator), scale, mode);
+            Ratio ratio = Ratio.of(numerator, denominator);
+            assertEquals(ratio.toString() + " " + scale, expected, ratio.decimalValue(scale, mode));
+            long multiplicand = random.nextInt(2000001) - 1000000;
+            BigDecimal product = BigDecimal.valueOf(numerator).multiply(BigDecimal.valueOf(multiplicand));
+            BigDecimal rounded = product.divide(BigDecimal.valueOf(denominator), 0, mode);
+            if (rounded.unscaledValue().bitLength() < 64)
+                assertEquals(rounded.longValueExact(), ratio.timesRounded(multiplicand, mode));
+        }
+    }
+
+    @Test
+    public void testPersistentMappingReducesTerms() throws Exception {
+        assertEquals(Ratio.of(1, 2), mapped("50", "100"));
+        assertEquals(Ratio.of(1, 2).hashCode(), mapped("50", "100").hashCode());
+        assertEquals(Ratio.of(-1, 2), mapped("1", "-2"));
+        assertEquals(Ratio.of(1, 2), mapped("0.5", "1"));
+        Ratio big = Ratio.of(new BigDecimal("123456789012345678901234567890"), new BigDecimal("7"));
+        assertEquals(big, mapped(big.breachEncapsulationOfNumerator().toString(), big.breachEncapsulationOfDenominator() + ".0"));
+
+        Ratio denominatorFirst = new Ratio();
+        invoke(denominatorFirst, "setForPersistentMapping_Denominator", new BigDecimal("100"));
+        invoke(denominatorFirst, "setForPersistentMapping_Numerator", new BigDecimal("50"));
+        assertEquals(Ratio.of(1, 2), denominatorFirst);
+        assertEquals(new BigDecimal("2"), invoke(denominatorFirst, "getForPersistentMapping_Denominator", null));
+    }
+
+    private Ratio mapped(String numerator, String denominator) throws Exception {
+        Ratio result = new Ratio();
+        invoke(result, "setForPersistentMapping_Numerator", new BigDecimal(numerator));
+        invoke(result, "setForPersistentMapping_Denominator", new BigDecimal(denominator));
+        return result;
+    }
+
+    private Object invoke(Ratio ratio, String name, BigDecimal argument) throws Exception {
+        Method method = argument == null
+                ? Ratio.class.getDeclaredMethod(name)
+                : Ratio.class.getDeclaredMethod(name, BigDecimal.class);
+        method.setAccessible(true);
+        return argument == null ? method.invoke(ratio) : method.invoke(ratio, argument);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BitmapIntervalSetTest {
+    //Values from -OFFSET up, over several groups of 65536 on both sides of zero.
+    private static final int OFFSET = 200000;
+    private static final int SPAN = 400000;
+
+    @Test
+    public void testRanges() {
+        BitmapIntervalSet set = new BitmapIntervalSet();
+        assertTrue(set.isEmpty());
+        set.addRange(65530, 65545);
+        set.add(-1);
+        set.add(0);
+        set.add(100);
+        set.removeRange(65540, 65541);
+        assertArrayEquals(new long[] {-1, 0, 100, 100, 65530, 65539, 65542, 65545}, set.ranges());
+        assertEquals(17, set.cardinality());
+        assertEquals(-1, set.first());
+        assertEquals(65545, set.last());
+        assertTrue(set.contains(65535));
+        assertFalse(set.contains(65540));
+        assertArrayEquals(new long[] {1, 99, 101, 65529, 65540, 65541}, set.gaps().ranges());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFirstOfEmpty() {
+        new BitmapIntervalSet().first();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBackwardRange() {
+        new BitmapIntervalSet().addRange(5, 4);
+    }
+
+    @Test
+    public void testIntervalSequences() {
+        IntervalSequence intervals = new IntervalSequence();
+        intervals.add(Interval.over(new Long(1), false, new Long(5), true));
+        intervals.add(Interval.closed(new Long(5), new Long(7)));
+        intervals.add(Interval.open(new Long(10), new Long(11)));
+        intervals.add(Interval.over(new Long(20), true, new Long(30), false));
+        BitmapIntervalSet set = BitmapIntervalSet.from(intervals);
+        assertArrayEquals(new long[] {2, 7, 20, 29}, set.ranges());
+        Iterator it = set.asIntervalSequence().iterator();
+        assertEquals(Interval.closed(new Long(2), new Long(7)), it.next());
+        assertEquals(Interval.closed(new Long(20), new Long(29)), it.next());
+        assertFalse(it.hasNext());
+
+        IntervalSequence integers = new IntervalSequence();
+        integers.add(Interval.closed(new Integer(-3), new Integer(3)));
+        assertArrayEquals(new long[] {-3, 3}, BitmapIntervalSet.from(integers).ranges());
+    }
+
+    @Test
+    public void testSameAsBitSet() {
+        Random random = new Random(13);
+        for (int round = 0; round < 40; round++) {
+            BitSet expectedLeft = new BitSet();
+            BitSet expectedRight = new BitSet();
+            BitmapIntervalSet left = randomSet(random, expectedLeft);
+            BitmapIntervalSet right = randomSet(random, expectedRight);
+            assertHolds(expectedLeft, left);
+            assertHolds(expectedRight, right);
+
+            BitSet union = (BitSet) expectedLeft.clone();
+            union.or(expectedRight);
+            assertHolds(union, left.union(right));
+            BitSet intersection = (BitSet) expectedLeft.clone();
+            intersection.and(expectedRight);
+            assertHolds(intersection, left.intersect(right));
+            BitSet difference = (BitSet) expectedLeft.clone();
+            difference.andNot(expectedRight);
+            assertHolds(difference, left.difference(right));
+            if (!expectedLeft.isEmpty()) {
+                BitSet gaps = new BitSet();
+                gaps.set(expectedLeft.nextSetBit(0), expectedLeft.length());
+                gaps.andNot(expectedLeft);
+                assertHolds(gaps, left.gaps());
+            }
+            //The operands are unchanged.
+            assertHolds(expectedLeft, left);
+            assertHolds(expectedRight, right);
+        }
+    }
+
+    private BitmapIntervalSet randomSet(Random random, BitSet expected) {
+        BitmapIntervalSet result = new BitmapIntervalSet();
+        int operations = random.nextInt(200);
+        for (int i = 0; i < operations; i++) {
+            int first = random.nextInt(SPAN);
+            //Mostly short runs, some long enough to fill whole groups.
+            int length = random.nextInt(10) == 0 ? random.nextInt(150000) : random.nextInt(20);
+            int last = Math.min(SPAN - 1, first + length);
+            switch (random.nextInt(4)) {
+            case 0:
+                result.add(first - OFFSET);
+                expected.set(first);
+                break;
+            case 1:
+                result.removeRange(first - OFFSET, last - OFFSET);
+                expected.clear(first, last + 1);
+                break;
+            default:
+                result.addRange(first - OFFSET, last - OFFSET);
+                expected.set(first, last + 1);
+            }
+        }
+        return result;
+    }
+
+    private void assertHolds(BitSet expected, BitmapIntervalSet actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        long[] ranges = actual.ranges();
+        int count = 0;
+        for (int start = expected.nextSetBit(0); start >= 0; start = expected.nextSetBit(start)) {
+            int end = expected.nextClearBit(start);
+            assertEquals(start - OFFSET, ranges[count++]);
+            assertEquals(end - 1 - OFFSET, ranges[count++]);
+            start = end;
+        }
+        assertEquals(count, ranges.length);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.nextSetBit(0) - OFFSET, actual.first());
+            assertEquals(expected.length() - 1 - OFFSET, actual.last());
+        }
+        for (int i = 0; i < 200; i++) {
+            int value = (int) ((i * 7919L) % SPAN);
+            assertEquals(expected.get(value), actual.contains(value - OFFSET));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentIntervalMapTest {
+
+    @Test
+    public void testPutSplitsOverlappedKeys() {
+        ConcurrentIntervalMap tariffs = new ConcurrentIntervalMap();
+        tariffs.put(Interval.closed(new Integer(0), new Integer(100)), "standard");
+        tariffs.put(Interval.open(new Integer(40), new Integer(60)), "reduced");
+        assertEquals(3, tariffs.size());
+        assertEquals("standard", tariffs.get(new Integer(40)));
+        assertEquals("reduced", tariffs.get(new Integer(41)));
+        assertEquals("standard", tariffs.get(new Integer(60)));
+        List entries = tariffs.entriesIntersecting(Interval.closed(new Integer(50), new Integer(70)));
+        assertEquals("reduced", ((Map.Entry) entries.get(0)).getValue());
+        assertEquals("standard", ((Map.Entry) entries.get(1)).getValue());
+
+        tariffs.remove(Interval.closed(new Integer(0), new Integer(50)));
+        assertFalse(tariffs.containsKey(new Integer(45)));
+        assertTrue(tariffs.containsKey(new Integer(51)));
+        assertFalse(tariffs.containsIntersectingKey(Interval.closed(new Integer(-10), new Integer(50))));
+        tariffs.clear();
+        assertTrue(tariffs.isEmpty());
+    }
+
+    @Test
+    public void testSameAnswersAsTreeIntervalMap() {
+        Random random = new Random(25);
+        IntervalMap tree = new TreeIntervalMap();
+        ConcurrentIntervalMap concurrent = new ConcurrentIntervalMap();
+        for (int i = 0; i < 1000; i++) {
+            Interval interval = randomInterval(random);
+            if (random.nextInt(4) == 0) {
+                tree.remove(interval);
+                concurrent.remove(interval);
+            } else {
+                Integer value = new Integer(i);
+                tree.put(interval, value);
+                concurrent.put(interval, value);
+            }
+            for (int key = -2; key <= 42; key++) {
+                Integer each = new Integer(key);
+                assertEquals(tree.get(each), concurrent.get(each));
+                assertEquals(tree.containsKey(each), concurrent.containsKey(each));
+            }
+            Interval probe = randomInterval(random);
+            assertEquals(tree.containsIntersectingKey(probe), concurrent.containsIntersectingKey(probe));
+        }
+    }
+
+    @Test
+    public void testReadersNeverSeeHalfASplit() throws InterruptedException {
+        final ConcurrentIntervalMap schedule = new ConcurrentIntervalMap();
+        final Interval whole = Interval.over(new Integer(0), true, new Integer(100), false);
+        final Interval middle = Interval.over(new Integer(40), true, new Integer(60), false);
+        schedule.put(whole, new Integer(0));
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference failure = new AtomicReference();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                public void run() {
+                    while (!done.get()) {
+                        for (int key = 0; key < 100; key += 7) {
+                            if (schedule.get(new Integer(key)) == null)
+                                failure.compareAndSet(null, "No value at " + key);
+                        }
+                        int size = schedule.size();
+                        if (size != 1 && size != 3)
+                            failure.compareAndSet(null, size + " entries");
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        for (int i = 1; i <= 20000; i++) {
+            schedule.put(middle, new Integer(-i));
+            schedule.put(whole, new Integer(i));
+        }
+        done.set(true);
+        for (int i = 0; i < readers.length; i++)
+            readers[i].join();
+        assertNull(failure.get());
+        assertEquals(new Integer(20000), schedule.get(new Integer(50)));
+    }
+
+    private Interval randomInterval(Random random) {
+        int lower = random.nextInt(40);
+        int upper = lower + 1 + random.nextInt(8);
+        return Interval.over(new Integer(lower), random.nextBoolean(), new Integer(upper), random.nextBoolean());
+    }
+}
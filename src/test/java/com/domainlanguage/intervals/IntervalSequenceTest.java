@@ -10,6 +10,7 @@ import org.junit.Test;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -112,4 +113,133 @@ public class IntervalSequenceTest {
         intervalSequence.add(c20_25c);
         assertEquals(Interval.closed(new Integer(5), new Integer(25)), intervalSequence.extent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGapsBetweenOverlappingIntervals() {
+        IntervalSequence intervalSequence = new IntervalSequence();
+        intervalSequence.add(Interval.closed(new Integer(0), new Integer(100)));
+        intervalSequence.add(c5_10c);
+        intervalSequence.add(c20_25c);
+        intervalSequence.add(o30_35o);
+        //[0, 100] covers everything else, so there are no gaps.
+        assertTrue(intervalSequence.gaps().isEmpty());
+    }
+
+    @Test
+    public void testCoalesce() {
+        IntervalSequence intervalSequence = new IntervalSequence();
+        intervalSequence.add(c20_25c);
+        intervalSequence.add(o10_12c);
+        intervalSequence.add(c5_10c);
+        intervalSequence.add(o11_20c);
+        intervalSequence.add(o30_35o);
+        intervalSequence.add(Interval.open(new Integer(40), new Integer(40)));
+        Iterator it = intervalSequence.coalesce().iterator();
+        assertEquals(Interval.closed(new Integer(5), new Integer(25)), it.next());
+        assertEquals(o30_35o, it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testHalfOpenEmptyIntervalsAreDropped() {
+        IntervalSequence intervalSequence = new IntervalSequence();
+        intervalSequence.add(Interval.over(new Integer(1), true, new Integer(2), false));
+        intervalSequence.add(Interval.over(new Integer(5), true, new Integer(5), false));
+        intervalSequence.add(Interval.over(new Integer(7), false, new Integer(7), true));
+        assertTrue(intervalSequence.gaps().isEmpty());
+        Iterator it = intervalSequence.coalesce().iterator();
+        assertEquals(Interval.over(new Integer(1), true, new Integer(2), false), it.next());
+        assertFalse(it.hasNext());
+
+        IntervalSequence other = new IntervalSequence();
+        other.add(Interval.closed(new Integer(4), new Integer(8)));
+        assertFalse(intervalSequence.intersect(other).iterator().hasNext());
+        Iterator union = intervalSequence.union(other).iterator();
+        union.next();
+        assertEquals(Interval.closed(new Integer(4), new Integer(8)), union.next());
+        assertFalse(union.hasNext());
+    }
+
+    @Test
+    public void testUnionAndIntersect() {
+        IntervalSequence left = new IntervalSequence();
+        left.add(c5_10c);
+        left.add(c20_25c);
+        IntervalSequence right = new IntervalSequence();
+        right.add(o10_12c);
+        right.add(o12_20o);
+        right.add(o30_35o);
+
+        Iterator union = left.union(right).iterator();
+        //(10, 12] and (12, 20) touch at 12, which the first includes.
+        assertEquals(Interval.closed(new Integer(5), new Integer(25)), union.next());
+        assertEquals(o30_35o, union.next());
+        assertFalse(union.hasNext());
+
+        //The intervals only touch, at 10 and 20, neither of which is in both.
+        Iterator intersection = left.intersect(right).iterator();
+        assertFalse(intersection.hasNext());
+        right.add(Interval.closed(new Integer(20), new Integer(22)));
+        intersection = left.intersect(right).iterator();
+        assertEquals(Interval.closed(new Integer(20), new Integer(22)), intersection.next());
+        assertFalse(intersection.hasNext());
+    }
+
+    @Test
+    public void testSetOperationsAgreeWithMembership() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            IntervalSequence left = randomSequence(random);
+            IntervalSequence right = randomSequence(random);
+            IntervalSequence union = left.union(right);
+            IntervalSequence intersection = left.intersect(right);
+            IntervalSequence gaps = left.gaps();
+            //Half steps see both the limits and the values between them.
+            for (int twice = -2; twice <= 84; twice++) {
+                Double value = new Double(twice / 2.0);
+                boolean inLeft = includes(left, value);
+                boolean inRight = includes(right, value);
+                assertEquals(inLeft || inRight, includes(union, value));
+                assertEquals(inLeft && inRight, includes(intersection, value));
+                Interval extent = left.coalesce().extent();
+                boolean between = extent != null && extent.includes(value);
+                assertEquals(between && !inLeft, includes(gaps, value));
+            }
+            assertDisjointAndOrdered(union);
+            assertDisjointAndOrdered(intersection);
+            assertDisjointAndOrdered(gaps);
+        }
+    }
+
+    private IntervalSequence randomSequence(Random random) {
+        IntervalSequence result = new IntervalSequence();
+        int size = random.nextInt(8);
+        for (int i = 0; i < size; i++) {
+            int lower = random.nextInt(40);
+            int upper = lower + random.nextInt(8);
+            boolean closed = random.nextBoolean();
+            result.add(Interval.over(new Double(lower), closed, new Double(upper), closed || random.nextBoolean()));
+        }
+        return result;
+    }
+
+    private boolean includes(IntervalSequence sequence, Comparable value) {
+        for (Iterator it = sequence.iterator(); it.hasNext();)
+            if (((Interval) it.next()).includes(value))
+                return true;
+        return false;
+    }
+
+    private void assertDisjointAndOrdered(IntervalSequence sequence) {
+        Interval previous = null;
+        for (Iterator it = sequence.iterator(); it.hasNext();) {
+            Interval each = (Interval) it.next();
+            assertFalse(each.isEmpty());
+            if (previous != null) {
+                assertFalse(previous.intersects(each));
+                assertTrue(previous.compareTo(each) < 0);
+            }
+            previous = each;
+        }
+    }
+}
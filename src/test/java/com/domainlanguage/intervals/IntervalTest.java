@@ -318,4 +318,18 @@ public class IntervalTest {
         assertEquals(c5_7c, complement.get(1));
     }
 
+    @Test
+    public void testReadsIntervalSerializedByEarlierRelease() {
+        //Interval.over(new Integer(1), true, new Integer(10), false), as serialized
+        //by the class before this release.
+        Object read = SerializationTester.deserialize(
+                "rO0ABXNyACVjb20uZG9tYWlubGFuZ3VhZ2UuaW50ZXJ2YWxzLkludGVydmFs6q4pk7qYKVgC" +
+                "AAJMABBsb3dlckxpbWl0T2JqZWN0dAAsTGNvbS9kb21haW5sYW5ndWFnZS9pbnRlcnZhbHMv" +
+                "SW50ZXJ2YWxMaW1pdDtMABB1cHBlckxpbWl0T2JqZWN0cQB+AAF4cHNyACpjb20uZG9tYWlu" +
+                "bGFuZ3VhZ2UuaW50ZXJ2YWxzLkludGVydmFsTGltaXRX+nfVE1bOaQIAA1oABmNsb3NlZFoA" +
+                "BWxvd2VyTAAFdmFsdWV0ABZMamF2YS9sYW5nL0NvbXBhcmFibGU7eHABAXNyABFqYXZhLmxh" +
+                "bmcuSW50ZWdlchLioKT3gYc4AgABSQAFdmFsdWV4cgAQamF2YS5sYW5nLk51bWJlcoaslR0L" +
+                "lOCLAgAAeHAAAAABc3EAfgADAABzcQB+AAYAAAAK");
+        assertEquals(Interval.over(new Integer(1), true, new Integer(10), false), read);
+    }
 }
\ No newline at end of file
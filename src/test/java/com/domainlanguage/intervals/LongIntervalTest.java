@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongIntervalTest {
+
+    @Test
+    public void testIncludes() {
+        LongInterval interval = LongInterval.over(5, false, 10, true);
+        assertFalse(interval.includes(5));
+        assertTrue(interval.includes(6));
+        assertTrue(interval.includes(10));
+        assertFalse(interval.includes(11));
+        assertTrue(interval.isAbove(5));
+        assertTrue(interval.isBelow(11));
+        assertFalse(interval.isBelow(10));
+        assertTrue(LongInterval.everFrom(Long.MIN_VALUE).includes(Long.MAX_VALUE));
+        assertFalse(LongInterval.open(Long.MAX_VALUE, Long.MAX_VALUE).includes(Long.MAX_VALUE));
+        assertFalse(LongInterval.everPreceding(Long.MIN_VALUE).includes(Long.MIN_VALUE));
+        assertEquals("(5, 10]", interval.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBackward() {
+        LongInterval.closed(2, 1);
+    }
+
+    @Test
+    public void testEmptyIntervalsAreEqual() {
+        assertEquals(LongInterval.open(1, 1), LongInterval.open(7, 7));
+        assertEquals(LongInterval.open(1, 1).hashCode(), LongInterval.open(7, 7).hashCode());
+        assertFalse(LongInterval.open(1, 1).equals(LongInterval.closed(1, 1)));
+    }
+
+    @Test
+    public void testSameAsInterval() {
+        Random random = new Random(14);
+        for (int i = 0; i < 20000; i++) {
+            LongInterval one = randomInterval(random);
+            LongInterval other = randomInterval(random);
+            Interval oneInterval = one.asInterval();
+            Interval otherInterval = other.asInterval();
+            long value = random.nextInt(12);
+            String message = one + " " + other + " " + value;
+            assertEquals(message, oneInterval.includes(new Long(value)), one.includes(value));
+            assertEquals(message, oneInterval.isBelow(new Long(value)), one.isBelow(value));
+            assertEquals(message, oneInterval.isAbove(new Long(value)), one.isAbove(value));
+            assertEquals(message, oneInterval.isEmpty(), one.isEmpty());
+            assertEquals(message, oneInterval.covers(otherInterval), one.covers(other));
+            assertEquals(message, oneInterval.intersects(otherInterval), one.intersects(other));
+            assertEquals(message, oneInterval.intersect(otherInterval), one.intersect(other).asInterval());
+        }
+    }
+
+    private LongInterval randomInterval(Random random) {
+        long lower = random.nextInt(10);
+        long upper = lower + random.nextInt(3);
+        return LongInterval.over(lower, random.nextBoolean(), upper, random.nextBoolean());
+    }
+}
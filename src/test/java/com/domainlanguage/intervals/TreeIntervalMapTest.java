@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TreeIntervalMapTest {
+
+    @Test
+    public void testLookup() {
+        IntervalMap map = new TreeIntervalMap();
+        map.put(Interval.closed(new Integer(1), new Integer(3)), "one-three");
+        map.put(Interval.closed(new Integer(5), new Integer(9)), "five-nine");
+        map.put(Interval.open(new Integer(9), new Integer(12)), "ten-eleven");
+
+        assertFalse(map.containsKey(new Integer(0)));
+        assertTrue(map.containsKey(new Integer(1)));
+        assertTrue(map.containsKey(new Integer(3)));
+        assertFalse(map.containsKey(new Integer(4)));
+        assertTrue(map.containsKey(new Integer(9)));
+        assertTrue(map.containsKey(new Integer(11)));
+        assertFalse(map.containsKey(new Integer(12)));
+        assertFalse(map.containsKey(null));
+
+        assertNull(map.get(new Integer(0)));
+        assertEquals("one-three", map.get(new Integer(2)));
+        assertNull(map.get(new Integer(4)));
+        assertEquals("five-nine", map.get(new Integer(9)));
+        assertEquals("ten-eleven", map.get(new Integer(10)));
+        assertNull(map.get(new Integer(12)));
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testRemove() {
+        IntervalMap map = new TreeIntervalMap();
+        map.put(Interval.closed(new Integer(1), new Integer(10)), "one-ten");
+        map.remove(Interval.closed(new Integer(3), new Integer(5)));
+        assertEquals("one-ten", map.get(new Integer(2)));
+        assertNull(map.get(new Integer(3)));
+        assertNull(map.get(new Integer(5)));
+        assertEquals("one-ten", map.get(new Integer(6)));
+    }
+
+    @Test
+    public void testConstructionOverwriteMultiple() {
+        IntervalMap map = new TreeIntervalMap();
+        map.put(Interval.closed(new Integer(1), new Integer(2)), "one-two");
+        map.put(Interval.closed(new Integer(3), new Integer(4)), "three-four");
+        map.put(Interval.closed(new Integer(5), new Integer(6)), "five-six");
+        map.put(Interval.closed(new Integer(8), new Integer(9)), "eight-nine");
+        map.put(Interval.closed(new Integer(3), new Integer(8)), "three-eight");
+        assertEquals("one-two", map.get(new Integer(2)));
+        assertEquals("three-eight", map.get(new Integer(3)));
+        assertEquals("three-eight", map.get(new Integer(6)));
+        assertEquals("three-eight", map.get(new Integer(8)));
+        assertEquals("eight-nine", map.get(new Integer(9)));
+    }
+
+    @Test
+    public void testSameLowerValueWithDifferentClosedness() {
+        IntervalMap map = new TreeIntervalMap();
+        map.put(Interval.closed(new Integer(5), new Integer(5)), "five");
+        map.put(Interval.over(new Integer(5), false, new Integer(9), true), "after-five");
+        assertEquals("five", map.get(new Integer(5)));
+        assertEquals("after-five", map.get(new Integer(6)));
+        assertTrue(map.containsIntersectingKey(Interval.closed(new Integer(4), new Integer(5))));
+        assertFalse(map.containsIntersectingKey(Interval.closed(new Integer(10), new Integer(12))));
+    }
+
+    @Test
+    public void testSameAnswersAsLinearIntervalMap() {
+        Random random = new Random(42);
+        IntervalMap linear = new LinearIntervalMap();
+        IntervalMap tree = new TreeIntervalMap();
+        for (int i = 0; i < 500; i++) {
+            Interval interval = randomInterval(random);
+            if (random.nextInt(4) == 0) {
+                linear.remove(interval);
+                tree.remove(interval);
+            } else {
+                Integer value = new Integer(i);
+                linear.put(interval, value);
+                tree.put(interval, value);
+            }
+            for (int key = -2; key <= 42; key++) {
+                Integer each = new Integer(key);
+                assertEquals(linear.get(each), tree.get(each));
+                assertEquals(linear.containsKey(each), tree.containsKey(each));
+            }
+            Interval probe = randomInterval(random);
+            assertEquals(linear.containsIntersectingKey(probe), tree.containsIntersectingKey(probe));
+        }
+    }
+
+    private Interval randomInterval(Random random) {
+        int lower = random.nextInt(40);
+        int upper = lower + 1 + random.nextInt(8);
+        return Interval.over(new Integer(lower), random.nextBoolean(), new Integer(upper), random.nextBoolean());
+    }
+}
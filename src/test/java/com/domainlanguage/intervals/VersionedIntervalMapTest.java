@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.intervals;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VersionedIntervalMapTest {
+
+    @Test
+    public void testVersions() {
+        VersionedIntervalMap prices = new VersionedIntervalMap();
+        assertEquals(0, prices.version());
+        prices.put(Interval.closed(new Integer(1), new Integer(10)), "ten");
+        IntervalMapSnapshot first = prices.snapshot();
+        prices.put(Interval.closed(new Integer(4), new Integer(6)), "twelve");
+        prices.remove(Interval.closed(new Integer(9), new Integer(10)));
+        assertEquals(3, prices.version());
+
+        assertEquals("twelve", prices.get(new Integer(5)));
+        assertEquals("ten", prices.get(new Integer(7)));
+        assertNull(prices.get(new Integer(9)));
+
+        assertEquals(1, first.version());
+        assertEquals(1, first.size());
+        assertEquals("ten", first.get(new Integer(5)));
+        assertTrue(first.containsKey(new Integer(10)));
+        assertEquals("twelve", prices.asOfVersion(2).get(new Integer(5)));
+        assertTrue(prices.asOfVersion(2).containsKey(new Integer(10)));
+        assertFalse(prices.asOfVersion(0).containsIntersectingKey(Interval.closed(new Integer(0), new Integer(100))));
+        assertEquals(3, prices.snapshot().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSuchVersion() {
+        new VersionedIntervalMap().asOfVersion(1);
+    }
+
+    @Test
+    public void testRetainSince() {
+        VersionedIntervalMap rates = new VersionedIntervalMap();
+        for (int i = 1; i <= 100; i++)
+            rates.put(Interval.closed(new Integer(i), new Integer(i + 10)), new Integer(i));
+        IntervalMapSnapshot kept = rates.asOfVersion(50);
+        rates.retainSince(90);
+        assertEquals(90, rates.oldestVersion());
+        assertEquals(new Integer(89), rates.asOfVersion(90).get(new Integer(89)));
+        assertEquals(new Integer(50), kept.get(new Integer(55)));
+        try {
+            rates.asOfVersion(89);
+            fail("Version 89 was released");
+        } catch (IllegalArgumentException expected) {
+        }
+        rates.put(Interval.closed(new Integer(0), new Integer(200)), "all");
+        assertEquals(101, rates.version());
+        assertEquals("all", rates.get(new Integer(5)));
+        assertEquals(new Integer(100), rates.asOfVersion(100).get(new Integer(105)));
+        rates.retainSince(101);
+        assertEquals("all", rates.snapshot().get(new Integer(150)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRetainSinceFutureVersion() {
+        new VersionedIntervalMap().retainSince(1);
+    }
+
+    @Test
+    public void testChangesWithin() {
+        VersionedIntervalMap rates = new VersionedIntervalMap();
+        rates.put(Interval.over(new Integer(0), true, new Integer(10), false), "low");
+        rates.put(Interval.over(new Integer(10), true, new Integer(20), false), "middle");
+        rates.put(Interval.over(new Integer(25), true, new Integer(30), false), "high");
+        List changes = rates.changesWithin(Interval.closed(new Integer(5), new Integer(25)));
+        assertEquals(3, changes.size());
+        assertEquals("low", ((Map.Entry) changes.get(0)).getValue());
+        assertEquals(Interval.over(new Integer(10), true, new Integer(20), false), ((Map.Entry) changes.get(1)).getKey());
+        assertEquals("high", ((Map.Entry) changes.get(2)).getValue());
+        assertTrue(rates.changesWithin(Interval.closed(new Integer(20), new Integer(24))).isEmpty());
+        assertEquals(1, rates.asOfVersion(1).changesWithin(Interval.closed(new Integer(5), new Integer(25))).size());
+    }
+
+    @Test
+    public void testSameAnswersAsTreeIntervalMap() {
+        Random random = new Random(24);
+        IntervalMap tree = new TreeIntervalMap();
+        VersionedIntervalMap versioned = new VersionedIntervalMap();
+        IntervalMapSnapshot[] snapshots = new IntervalMapSnapshot[500];
+        Object[][] answers = new Object[500][];
+        for (int i = 0; i < 500; i++) {
+            Interval interval = randomInterval(random);
+            if (random.nextInt(4) == 0) {
+                tree.remove(interval);
+                versioned.remove(interval);
+            } else {
+                Integer value = new Integer(i);
+                tree.put(interval, value);
+                versioned.put(interval, value);
+            }
+            answers[i] = new Object[45];
+            for (int key = -2; key <= 42; key++) {
+                Integer each = new Integer(key);
+                answers[i][key + 2] = tree.get(each);
+                assertEquals(tree.get(each), versioned.get(each));
+                assertEquals(tree.containsKey(each), versioned.containsKey(each));
+            }
+            Interval probe = randomInterval(random);
+            assertEquals(tree.containsIntersectingKey(probe), versioned.containsIntersectingKey(probe));
+            snapshots[i] = versioned.snapshot();
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i + 1, snapshots[i].version());
+            for (int key = -2; key <= 42; key++)
+                assertEquals(answers[i][key + 2], versioned.asOfVersion(i + 1).get(new Integer(key)));
+        }
+    }
+
+    private Interval randomInterval(Random random) {
+        int lower = random.nextInt(40);
+        int upper = lower + 1 + random.nextInt(8);
+        return Interval.over(new Integer(lower), random.nextBoolean(), new Integer(upper), random.nextBoolean());
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+import org.junit.Test;
+
+import java.util.Currency;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class ExchangeRateHistoryTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final TimeZone GMT = TimeZone.getTimeZone("Universal");
+
+    private TimeInterval month(int month) {
+        return CalendarInterval.month(2004, month).asTimeInterval(GMT);
+    }
+
+    private ExchangeRateHistory history() {
+        ExchangeRateHistory history = new ExchangeRateHistory();
+        history.put(USD, EUR, Ratio.of(9, 10), month(1));
+        history.put(EUR, USD, Ratio.of(5, 4), month(2));
+        history.put(EUR, JPY, Ratio.of(130, 1), TimeInterval.everFrom(TimePoint.atMidnightGMT(2004, 1, 1)));
+        return history;
+    }
+
+    @Test
+    public void testRatesChangeOverTime() {
+        ExchangeRateHistory history = history();
+        assertEquals(Ratio.of(9, 10), history.rate(USD, EUR, TimePoint.atGMT(2004, 1, 15, 12, 0)));
+        assertEquals(Ratio.of(4, 5), history.rate(USD, EUR, TimePoint.atMidnightGMT(2004, 2, 1)));
+        assertEquals(Ratio.of(104, 1), history.rate(USD, JPY, TimePoint.atGMT(2004, 2, 29, 23, 59, 59, 999)));
+        assertFalse(history.tableAt(TimePoint.atMidnightGMT(2004, 3, 1)).converts(USD, EUR));
+        assertTrue(history.tableAt(TimePoint.atMidnightGMT(2004, 3, 1)).converts(EUR, JPY));
+        assertEquals(0, history.tableAt(TimePoint.atMidnightGMT(2003, 12, 31)).currencies().length);
+    }
+
+    @Test
+    public void testTablesAreSharedWithinASpan() {
+        ExchangeRateHistory history = history();
+        ExchangeRateTable january = history.tableAt(TimePoint.atMidnightGMT(2004, 1, 1));
+        assertSame(january, history.tableAt(TimePoint.atGMT(2004, 1, 31, 23, 59, 59, 999)));
+        assertNotSame(january, history.tableAt(TimePoint.atMidnightGMT(2004, 2, 1)));
+        history.put(USD, JPY, Ratio.of(100, 1), month(1));
+        assertEquals(Ratio.of(100, 1), history.rate(USD, JPY, TimePoint.atMidnightGMT(2004, 1, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlappingRates() {
+        history().put(EUR, USD, Ratio.of(1, 1), TimeInterval.over(TimePoint.atMidnightGMT(2004, 1, 31), TimePoint.atMidnightGMT(2004, 2, 2)));
+    }
+
+    @Test
+    public void testDatedBulkConversion() {
+        Money[] monies = {Money.dollars(10), Money.dollars(10), Money.euros(1)};
+        TimePoint[] points = {TimePoint.atMidnightGMT(2004, 1, 10), TimePoint.atMidnightGMT(2004, 2, 10), TimePoint.atMidnightGMT(2004, 2, 10)};
+        Money[] converted = history().convert(monies, points, EUR, Rounding.UNNECESSARY);
+        assertEquals(Money.euros(9), converted[0]);
+        assertEquals(Money.euros(8), converted[1]);
+        assertEquals(Money.euros(1), converted[2]);
+    }
+}
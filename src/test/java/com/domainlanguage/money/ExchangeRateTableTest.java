@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.Assert.*;
+
+public class ExchangeRateTableTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final Currency GBP = Currency.getInstance("GBP");
+    private static final Currency CHF = Currency.getInstance("CHF");
+
+    private ExchangeRateTable table = ExchangeRateTable.of(
+            new Currency[] {USD, EUR, GBP},
+            new Currency[] {EUR, JPY, CHF},
+            new Ratio[] {Ratio.of(new BigDecimal("0.9")), Ratio.of(130, 1), Ratio.of(new BigDecimal("1.25"))});
+
+    @Test
+    public void testCrossRates() {
+        assertEquals(Ratio.of(9, 10), table.rate(USD, EUR));
+        assertEquals(Ratio.of(10, 9), table.rate(EUR, USD));
+        assertEquals(Ratio.of(117, 1), table.rate(USD, JPY));
+        assertEquals(Ratio.of(1, 117), table.rate(JPY, USD));
+        assertEquals(Ratio.of(1, 1), table.rate(CHF, CHF));
+        assertTrue(table.converts(GBP, CHF));
+        assertFalse(table.converts(USD, GBP));
+        assertEquals(5, table.currencies().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoRate() {
+        table.rate(USD, GBP);
+    }
+
+    @Test
+    public void testFewestConversionsWin() {
+        ExchangeRateTable withDirectRate = ExchangeRateTable.of(
+                new Currency[] {USD, EUR, USD},
+                new Currency[] {EUR, JPY, JPY},
+                new Ratio[] {Ratio.of(9, 10), Ratio.of(130, 1), Ratio.of(110, 1)});
+        assertEquals(Ratio.of(110, 1), withDirectRate.rate(USD, JPY));
+        assertEquals(Ratio.of(1, 130), withDirectRate.rate(JPY, EUR));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTwoRatesForAPair() {
+        ExchangeRateTable.of(new Currency[] {USD, EUR}, new Currency[] {EUR, USD}, new Ratio[] {Ratio.of(9, 10), Ratio.of(10, 9)});
+    }
+
+    @Test
+    public void testConvert() {
+        assertEquals(Money.valueOf(1170, JPY), Money.dollars(10).convertedTo(JPY, table, Rounding.UNNECESSARY));
+        assertEquals(Money.dollars(0.85), Money.valueOf(100, JPY).convertedTo(USD, table, Rounding.HALF_EVEN));
+        assertEquals(Money.dollars(0.86), Money.valueOf(100, JPY).convertedTo(USD, table, Rounding.UP));
+        Money euros = Money.euros(5);
+        assertSame(euros, euros.convertedTo(EUR, table, Rounding.UNNECESSARY));
+        Money huge = Money.valueOf(new BigDecimal("1000000000000000000000.00"), USD);
+        assertEquals(Money.valueOf(new BigDecimal("900000000000000000000.00"), EUR), huge.convertedTo(EUR, table, Rounding.UNNECESSARY));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testConvertNeedingRounding() {
+        Money.valueOf(100, JPY).convertedTo(USD, table, Rounding.UNNECESSARY);
+    }
+
+    @Test
+    public void testBulkConversion() {
+        Money[] monies = {Money.dollars(1), Money.euros(1), Money.valueOf(1000, JPY), Money.dollars(-2.50)};
+        Money[] converted = table.convert(monies, EUR, Rounding.HALF_EVEN);
+        assertEquals(Money.euros(0.9), converted[0]);
+        assertEquals(Money.euros(1), converted[1]);
+        assertEquals(Money.euros(7.69), converted[2]);
+        assertEquals(Money.euros(-2.25), converted[3]);
+
+        long[] cents = new long[1000];
+        Money[] dollars = new Money[cents.length];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = i * 7919 - 3000000;
+            dollars[i] = Money.fromMinorUnits(cents[i], USD);
+        }
+        MoneyVector yen = MoneyVector.of(cents, USD).convertedTo(JPY, table, Rounding.HALF_UP);
+        assertEquals(MoneyVector.from(table.convert(dollars, JPY, Rounding.HALF_UP)), yen);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class MoneyAccumulatorTest {
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Test
+    public void testSum() {
+        MoneyAccumulator balance = new MoneyAccumulator(USD);
+        assertEquals(Money.dollars(0), balance.sum());
+        balance.add(Money.dollars(10.25));
+        balance.add(-125);
+        assertEquals(Money.dollars(9), balance.sum());
+        assertEquals(Money.dollars(9), balance.sumThenReset());
+        assertEquals(Money.dollars(0), balance.sum());
+        balance.add(1);
+        balance.reset();
+        assertEquals(Money.dollars(0), balance.sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherCurrency() {
+        new MoneyAccumulator(USD).add(Money.euros(1));
+    }
+
+    @Test
+    public void testOverflowFallsBackToExactArithmetic() {
+        MoneyAccumulator balance = new MoneyAccumulator(USD);
+        balance.add(Long.MAX_VALUE);
+        balance.add(Long.MAX_VALUE);
+        balance.add(Long.MAX_VALUE);
+        BigDecimal expected = new BigDecimal(Long.MAX_VALUE).multiply(new BigDecimal(3)).movePointLeft(2);
+        assertEquals(Money.valueOf(expected, USD), balance.sum());
+        assertEquals(Money.valueOf(expected, USD), balance.sumThenReset());
+        assertEquals(Money.dollars(0), balance.sum());
+
+        balance.add(Money.valueOf(expected, USD));
+        balance.add(Money.valueOf(expected.negate(), USD));
+        balance.add(Long.MIN_VALUE);
+        assertEquals(Money.valueOf(BigDecimal.valueOf(Long.MIN_VALUE, 2), USD), balance.sum());
+    }
+
+    @Test
+    public void testNoAdditionIsLostAcrossResets() throws InterruptedException {
+        final MoneyAccumulator balance = new MoneyAccumulator(USD);
+        final AtomicLong drained = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < 100000; i++)
+                        balance.add(3);
+                }
+            };
+            threads[t].start();
+        }
+        for (int i = 0; i < 100; i++)
+            drained.addAndGet(balance.sumThenReset().getMinorUnits());
+        for (int t = 0; t < threads.length; t++)
+            threads[t].join();
+        drained.addAndGet(balance.sumThenReset().getMinorUnits());
+        assertEquals(4 * 100000 * 3, drained.get());
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+
+import static org.junit.Assert.*;
+
+public class MoneyBagTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final Currency YUM = Currency.getInstance("YUM");
+    private static final Currency CSD = Currency.getInstance("CSD");
+
+    @Test
+    public void testMixedCurrencies() {
+        MoneyBag bag = MoneyBag.of(Arrays.asList(new Money[] {Money.dollars(1.25), Money.euros(3), Money.dollars(-0.50)}));
+        bag.add(150, JPY);
+        bag.add(Money.valueOf(new BigDecimal("2.00"), YUM));
+        bag.add(Money.valueOf(new BigDecimal("3.00"), CSD));
+        assertFalse(bag.isEmpty());
+        assertEquals(Money.dollars(0.75), bag.total(USD));
+        assertEquals(Money.euros(3), bag.total(EUR));
+        assertEquals(Money.valueOf(150, JPY), bag.total(JPY));
+        assertEquals(Money.valueOf(new BigDecimal("2.00"), YUM), bag.total(YUM));
+        assertEquals(Money.valueOf(new BigDecimal("3.00"), CSD), bag.total(CSD));
+        assertEquals(Money.valueOf(0, Currency.getInstance("GBP")), bag.total(Currency.getInstance("GBP")));
+        assertEquals(5, bag.totals().length);
+        //JPY is 392, USD 840 and EUR 978.
+        assertEquals(JPY, bag.currencies()[0]);
+        assertEquals(USD, bag.currencies()[1]);
+        assertEquals(EUR, bag.currencies()[2]);
+        bag.clear();
+        assertTrue(bag.isEmpty());
+        assertEquals("{}", bag.toString());
+    }
+
+    @Test
+    public void testOverflowIsExact() {
+        MoneyBag bag = new MoneyBag();
+        bag.add(Long.MAX_VALUE, USD);
+        bag.add(Long.MAX_VALUE, USD);
+        bag.add(Money.valueOf(new BigDecimal("1000000000000000000000.00"), USD));
+        BigDecimal expected = new BigDecimal(Long.MAX_VALUE).multiply(new BigDecimal(2)).movePointLeft(2).add(new BigDecimal("1000000000000000000000.00"));
+        assertEquals(Money.valueOf(expected, USD), bag.total(USD));
+        bag.add(Money.valueOf(expected.negate(), USD));
+        bag.add(-1, USD);
+        assertEquals(Money.dollars(-0.01), bag.total(USD));
+    }
+
+    @Test
+    public void testMerge() {
+        MoneyBag one = new MoneyBag();
+        one.add(Money.dollars(10));
+        MoneyBag other = new MoneyBag();
+        other.add(Money.dollars(5));
+        other.add(Money.euros(7));
+        one.addAll(other);
+        assertEquals(Money.dollars(15), one.total(USD));
+        assertEquals(Money.euros(7), one.total(EUR));
+        assertEquals(Money.dollars(5), other.total(USD));
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        final MoneyBag bag = new MoneyBag();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < 100000; i++) {
+                        bag.add(1, USD);
+                        bag.add(2, EUR);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++)
+            threads[t].join();
+        assertEquals(Money.valueOf(new BigDecimal("8000.00"), USD), bag.total(USD));
+        assertEquals(Money.valueOf(new BigDecimal("16000.00"), EUR), bag.total(EUR));
+    }
+}
@@ -6,7 +6,10 @@ import com.domainlanguage.tests.SerializationTester;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
 import java.math.BigDecimal;
+import java.util.Base64;
 import java.util.Currency;
 import java.util.Locale;
 
@@ -219,12 +222,73 @@ public class MoneyTest {
         assertEquals(Money.dollars(33.40), result);
     }
 
+    @Test
+    public void testApplyRatioAtCurrencyScale() {
+        assertEquals(Money.dollars(33.34), Money.dollars(100).applying(Ratio.of(1, 3), Rounding.UP));
+        assertEquals(Money.dollars(-66.67), Money.dollars(-100).applying(Ratio.of(2, 3), Rounding.HALF_EVEN));
+        Money large = Money.valueOf(new BigDecimal("92233720368547758.07"), USD);
+        assertEquals(Money.valueOf(new BigDecimal("184467440737095516.14"), USD), large.applying(Ratio.of(2, 1), Rounding.UNNECESSARY));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testApplyRatioNeedingRounding() {
+        Money.dollars(100).applying(Ratio.of(1, 3), Rounding.UNNECESSARY);
+    }
+
     @Test
     public void testIncremented() {
         assertEquals(Money.dollars(2.52), d2_51.incremented());
         assertEquals(Money.valueOf(51, JPY), y50.incremented());
     }
 
+    @Test
+    public void testArithmeticBeyondLongRange() {
+        Money max = Money.valueOf(new BigDecimal(Long.MAX_VALUE).movePointLeft(2), USD);
+        Money cent = Money.valueOf(new BigDecimal("0.01"), USD);
+        Money beyond = max.plus(cent);
+        assertEquals(new BigDecimal("92233720368547758.08"), beyond.breachEncapsulationOfAmount());
+        assertEquals(max, beyond.minus(cent));
+        assertEquals(max.negated().minus(cent).minus(cent), beyond.negated().minus(cent));
+        assertEquals(new BigDecimal("184467440737095516.14"), max.times(2).breachEncapsulationOfAmount());
+        assertTrue(beyond.compareTo(max) > 0);
+        assertTrue(beyond.negated().isNegative());
+        assertEquals(beyond, beyond.negated().abs());
+    }
+
+    @Test
+    public void testEqualsAndHashAcrossRepresentations() {
+        Money big = Money.valueOf(new BigDecimal("100000000000000000.00"), USD);
+        Money viaOverflow = big.plus(big).minus(big).minus(big).plus(d15);
+        assertEquals(d15, viaOverflow);
+        assertEquals(d15.hashCode(), viaOverflow.hashCode());
+        assertEquals(0, d15.compareTo(viaOverflow));
+        assertEquals("USD 15.00", viaOverflow.toString(Locale.UK));
+    }
+
+    @Test
+    public void testReadsMoneySerializedBeforeMinorUnits() throws Exception {
+        //Money.dollars(new BigDecimal("12.34")), as serialized by the class
+        //when it held only a BigDecimal amount and a Currency.
+        String serialized = "rO0ABXNyAB5jb20uZG9tYWlubGFuZ3VhZ2UubW9uZXkuTW9uZXlTUvapnExASwIAAkwABmFt" +
+            "b3VudHQAFkxqYXZhL21hdGgvQmlnRGVjaW1hbDtMAAhjdXJyZW5jeXQAFExqYXZhL3V0aWwv" +
+            "Q3VycmVuY3k7eHBzcgAUamF2YS5tYXRoLkJpZ0RlY2ltYWxUxxVX+YEoTwMAAkkABXNjYWxl" +
+            "TAAGaW50VmFsdAAWTGphdmEvbWF0aC9CaWdJbnRlZ2VyO3hyABBqYXZhLmxhbmcuTnVtYmVy" +
+            "hqyVHQuU4IsCAAB4cAAAAAJzcgAUamF2YS5tYXRoLkJpZ0ludGVnZXKM/J8fqTv7HQMABkkA" +
+            "CGJpdENvdW50SQAJYml0TGVuZ3RoSQATZmlyc3ROb256ZXJvQnl0ZU51bUkADGxvd2VzdFNl" +
+            "dEJpdEkABnNpZ251bVsACW1hZ25pdHVkZXQAAltCeHEAfgAG///////////////+/////gAA" +
+            "AAF1cgACW0Ks8xf4BghU4AIAAHhwAAAAAgTSeHhzcgASamF2YS51dGlsLkN1cnJlbmN5/c2T" +
+            "SlkRqR8CAAFMAAxjdXJyZW5jeUNvZGV0ABJMamF2YS9sYW5nL1N0cmluZzt4cHQAA1VTRA==";
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(serialized)));
+        Money read = (Money) in.readObject();
+        assertEquals(Money.dollars(new BigDecimal("12.34")), read);
+        assertEquals(Money.dollars(new BigDecimal("1.66")), read.minus(Money.dollars(new BigDecimal("10.68"))));
+    }
+
+    @Test
+    public void testSerializationOfLargeAmount() {
+        SerializationTester.assertCanBeSerialized(Money.valueOf(new BigDecimal("1E+30"), USD));
+    }
+
     @Test
     public void testFractionalPennies() {
 //        CurrencyPolicy(USD, 0.0025); 
@@ -6,6 +6,7 @@
 package com.domainlanguage.money;
 
 import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
 import org.junit.Test;
 
 import java.math.BigDecimal;
@@ -48,4 +49,20 @@ public class MoneyTimeRateTest {
         MoneyTimeRate rate = amount.per(Duration.days(2));
         assertEquals(new MoneyTimeRate(Money.euros(11.00), Duration.days(2)), rate);
     }
+
+    @Test
+    public void testBatchAccrual() {
+        MoneyTimeRate rate = new MoneyTimeRate(Money.euros(new BigDecimal("100.00")), Duration.minutes(3));
+        Duration[] durations = {Duration.minutes(1), Duration.hours(1), Duration.milliseconds(1)};
+        long[] minorUnits = rate.minorUnitsOver(durations, BigDecimal.ROUND_HALF_UP);
+        for (int i = 0; i < durations.length; i++)
+            assertEquals(rate.over(durations[i], BigDecimal.ROUND_HALF_UP), Money.euros(BigDecimal.valueOf(minorUnits[i], 2)));
+        MoneyVector amounts = rate.over(durations, BigDecimal.ROUND_HALF_UP);
+        assertEquals(Money.euros(new BigDecimal("33.33")), amounts.get(0));
+        assertEquals(Money.euros(new BigDecimal("2000.00")), amounts.get(1));
+
+        TimePoint start = TimePoint.atGMT(2004, 1, 1, 0, 0);
+        MoneyVector between = rate.over(new TimePoint[] {start}, new TimePoint[] {TimePoint.atGMT(2004, 1, 1, 0, 30)}, BigDecimal.ROUND_HALF_UP);
+        assertEquals(Money.euros(new BigDecimal("1000.00")), between.get(0));
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MoneyVectorTest {
+    private static Currency USD = Currency.getInstance("USD");
+    private static Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    public void testConversion() {
+        Money[] monies = {Money.dollars(1.25), Money.dollars(-3), Money.dollars(0)};
+        MoneyVector vector = MoneyVector.from(monies);
+        assertEquals(3, vector.size());
+        assertEquals(Money.dollars(-3), vector.get(1));
+        assertTrue(Arrays.equals(monies, vector.toMoneyArray()));
+        assertTrue(Arrays.equals(new long[] {125, -300, 0}, vector.breachEncapsulationOfMinorUnits()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMixedCurrencies() {
+        MoneyVector.from(new Money[] {Money.dollars(1), Money.euros(1)});
+    }
+
+    @Test
+    public void testSum() {
+        MoneyVector vector = MoneyVector.of(new long[] {125, -300, 1000}, USD);
+        assertEquals(Money.dollars(8.25), vector.sum());
+        assertEquals(Money.valueOf(0, JPY), MoneyVector.of(new long[0], JPY).sum());
+    }
+
+    @Test
+    public void testSumBeyondLongRange() {
+        MoneyVector vector = MoneyVector.of(new long[] {Long.MAX_VALUE, Long.MAX_VALUE, -5}, USD);
+        BigDecimal expected = new BigDecimal(Long.MAX_VALUE).multiply(new BigDecimal(2)).subtract(new BigDecimal(5)).movePointLeft(2);
+        assertEquals(Money.valueOf(expected, USD), vector.sum());
+    }
+
+    @Test
+    public void testPlus() {
+        MoneyVector vector = MoneyVector.of(new long[] {1, 2, 3}, USD);
+        assertEquals(MoneyVector.of(new long[] {11, 22, 33}, USD), vector.plus(MoneyVector.of(new long[] {10, 20, 30}, USD)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testPlusOverflow() {
+        MoneyVector.of(new long[] {Long.MAX_VALUE}, USD).plus(MoneyVector.of(new long[] {1}, USD));
+    }
+
+    @Test
+    public void testMinMax() {
+        MoneyVector vector = MoneyVector.of(new long[] {125, -300, 1000}, USD);
+        assertEquals(Money.dollars(-3), vector.min());
+        assertEquals(Money.dollars(10), vector.max());
+    }
+
+    @Test
+    public void testSameResultsAsMoney() {
+        Random random = new Random(11);
+        long[] minorUnits = new long[200];
+        for (int i = 0; i < minorUnits.length; i++)
+            minorUnits[i] = random.nextInt() - random.nextInt(1000);
+        MoneyVector vector = MoneyVector.of(minorUnits, USD);
+        Money[] monies = vector.toMoneyArray();
+        BigDecimal[] factors = {new BigDecimal("1.5"), new BigDecimal("-0.0333"), new BigDecimal("3"), new BigDecimal("1E+3")};
+        Ratio[] ratios = {Ratio.of(1, 3), Ratio.of(-7, 9), Ratio.of(new BigDecimal("2.5"), new BigDecimal("0.75"))};
+        int[] modes = {Rounding.HALF_EVEN, Rounding.UP, Rounding.FLOOR};
+        for (int m = 0; m < modes.length; m++) {
+            for (int f = 0; f < factors.length; f++) {
+                Money[] scaled = vector.times(factors[f], modes[m]).toMoneyArray();
+                for (int i = 0; i < monies.length; i++)
+                    assertEquals(monies[i].times(factors[f], modes[m]), scaled[i]);
+            }
+            for (int r = 0; r < ratios.length; r++) {
+                Money[] applied = vector.applying(ratios[r], modes[m]).toMoneyArray();
+                for (int i = 0; i < monies.length; i++)
+                    assertEquals(monies[i].applying(ratios[r], modes[m]), applied[i]);
+            }
+        }
+    }
+}
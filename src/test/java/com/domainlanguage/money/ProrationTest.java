@@ -6,9 +6,14 @@
 
 package com.domainlanguage.money;
 
+import com.domainlanguage.base.Rounding;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
 
 public class ProrationTest {
     private Proration proration = new Proration();
@@ -101,4 +106,68 @@ public class ProrationTest {
         assertEquals(Money.dollars(3.33), proration.partOfWhole(total, portion, whole));
     }
 
+    @Test
+    public void testProrateMinorUnitsByLargestRemainder() {
+        long[] proportions = {17, 2, 1, 35, 35, 10};
+        //Exact shares 1.7, 0.2, 0.1, 3.5, 3.5, 1.0: the two units left over
+        //go to the largest fractions, the first 0.5 before the second.
+        assertArrayEquals(new long[] {2, 0, 0, 4, 3, 1}, proration.proratedOver(10, proportions));
+        assertArrayEquals(new long[] {-2, 0, 0, -4, -3, -1}, proration.proratedOver(-10, proportions));
+        assertArrayEquals(new long[] {1, 0}, proration.proratedOver(1, new long[] {1, 1}));
+        assertArrayEquals(new long[] {4, 3, 3}, proration.proratedOver(10, new long[] {1, 1, 1}));
+    }
+
+    @Test
+    public void testProratedVectorOver() {
+        MoneyVector result = proration.proratedVectorOver(Money.dollars(0.05), new long[] {3, 7});
+        assertEquals(Money.dollars(0.02), result.get(0));
+        assertEquals(Money.dollars(0.03), result.get(1));
+    }
+
+    @Test
+    public void testProrateMinorUnitsOverLargeFanOut() {
+        Random random = new Random(9);
+        long[] proportions = new long[100000];
+        for (int i = 0; i < proportions.length; i++)
+            proportions[i] = random.nextInt(1000);
+        long total = 123456789012L;
+        long[] result = proration.proratedOver(total, proportions);
+        BigDecimal sumOfProportions = Proration.sum(toBigDecimals(proportions));
+        long sum = 0;
+        for (int i = 0; i < result.length; i++) {
+            BigDecimal exact = BigDecimal.valueOf(total).multiply(BigDecimal.valueOf(proportions[i])).divide(sumOfProportions, 10, Rounding.DOWN);
+            assertTrue(exact.subtract(BigDecimal.valueOf(result[i])).abs().compareTo(BigDecimal.ONE) < 0);
+            sum += result[i];
+        }
+        assertEquals(total, sum);
+    }
+
+    @Test
+    public void testProrateMinorUnitsWithOverflowingProducts() {
+        long[] result = proration.proratedOver(Long.MAX_VALUE, new long[] {Long.MAX_VALUE / 3, Long.MAX_VALUE / 3, 1});
+        assertEquals(Long.MAX_VALUE, result[0] + result[1] + result[2]);
+        assertEquals(1, result[2]);
+    }
+
+    @Test
+    public void testLargest() {
+        Random random = new Random(4);
+        for (int i = 0; i < 200; i++) {
+            long[] values = new long[1 + random.nextInt(50)];
+            for (int j = 0; j < values.length; j++)
+                values[j] = random.nextInt(8);
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            int k = 1 + random.nextInt(values.length);
+            assertEquals(sorted[sorted.length - k], Proration.largest(values, k));
+        }
+    }
+
+    private BigDecimal[] toBigDecimals(long[] values) {
+        BigDecimal[] result = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++)
+            result[i] = BigDecimal.valueOf(values[i]);
+        return result;
+    }
+
 }
\ No newline at end of file
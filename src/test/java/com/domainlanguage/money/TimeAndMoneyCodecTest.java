@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.money;
+
+import com.domainlanguage.time.TimePoint;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Currency;
+
+import static org.junit.Assert.*;
+
+public class TimeAndMoneyCodecTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final TimeAndMoneyCodec[] CODECS = {TimeAndMoneyCodec.FIXED, TimeAndMoneyCodec.VARINT};
+
+    @Test
+    public void testMoneyRoundTrips() {
+        Money[] monies = {
+                Money.dollars(12.34),
+                Money.valueOf(-5, JPY),
+                Money.euros(0),
+                Money.valueOf(new BigDecimal("123456789012345678901234567.89"), USD),
+                Money.valueOf(new BigDecimal("1.50"), Currency.getInstance("CSD")),
+                Money.valueOf(new BigDecimal("-2.25"), Currency.getInstance("YUM"))};
+        for (int i = 0; i < CODECS.length; i++) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+            for (int j = 0; j < monies.length; j++)
+                CODECS[i].putMoney(buffer, monies[j]);
+            CODECS[i].putMonies(buffer, monies);
+            buffer.flip();
+            for (int j = 0; j < monies.length; j++) {
+                Money read = CODECS[i].getMoney(buffer);
+                assertEquals(monies[j], read);
+                assertEquals(monies[j].getCurrency(), read.getCurrency());
+            }
+            assertTrue(Arrays.equals(monies, CODECS[i].getMonies(buffer)));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testSizes() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        TimeAndMoneyCodec.VARINT.putMoney(buffer, Money.dollars(12.34));
+        //840 * 2 takes two bytes, and 1234 * 2 takes two more.
+        assertEquals(4, buffer.position());
+        buffer.clear();
+        TimeAndMoneyCodec.FIXED.putMoney(buffer, Money.dollars(12.34));
+        assertEquals(10, buffer.position());
+    }
+
+    @Test
+    public void testMoneyVectorInMappedFile() throws Exception {
+        long[] minorUnits = new long[500];
+        for (int i = 0; i < minorUnits.length; i++)
+            minorUnits[i] = i * 101 - 20000;
+        MoneyVector vector = MoneyVector.of(minorUnits, USD);
+        File file = File.createTempFile("ledger", ".bin");
+        file.deleteOnExit();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16 * 1024);
+            for (int i = 0; i < CODECS.length; i++) {
+                CODECS[i].putTimePoint(mapped, TimePoint.from(1124679473000l));
+                CODECS[i].putMoneyVector(mapped, vector);
+            }
+            mapped.flip();
+            for (int i = 0; i < CODECS.length; i++) {
+                assertEquals(TimePoint.from(1124679473000l), CODECS[i].getTimePoint(mapped));
+                MoneyVector read = CODECS[i].getMoneyVector(mapped);
+                assertEquals(USD, read.breachEncapsulationOfCurrency());
+                assertTrue(Arrays.equals(minorUnits, read.breachEncapsulationOfMinorUnits()));
+            }
+            assertFalse(mapped.hasRemaining());
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void testCurrencyNumbersAreFixed() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        TimeAndMoneyCodec.FIXED.putMoney(buffer, Money.valueOf(new BigDecimal("1.50"), Currency.getInstance("EUR")));
+        TimeAndMoneyCodec.FIXED.putMoney(buffer, Money.valueOf(new BigDecimal("2.25"), Currency.getInstance("CSD")));
+        buffer.flip();
+        assertEquals(978 << 1, buffer.getShort());
+        assertEquals(150, buffer.getLong());
+        assertEquals(0, buffer.getShort());
+        assertEquals('C', buffer.get());
+        assertEquals('S', buffer.get());
+        assertEquals('D', buffer.get());
+        assertEquals(225, buffer.getLong());
+
+        buffer.clear();
+        buffer.putShort((short) (392 << 1));
+        buffer.putLong(500);
+        buffer.flip();
+        assertEquals(Money.valueOf(new BigDecimal("500"), JPY), TimeAndMoneyCodec.FIXED.getMoney(buffer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCurrency() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putShort((short) (1 << 1));
+        buffer.putLong(0);
+        buffer.flip();
+        TimeAndMoneyCodec.FIXED.getMoney(buffer);
+    }
+}
@@ -10,6 +10,7 @@ import junit.framework.Assert;
 import junit.framework.AssertionFailedError;
 
 import java.io.*;
+import java.util.Base64;
 
 public class SerializationTester {
 
@@ -38,4 +39,17 @@ public class SerializationTester {
         }
     }
 
+    /**
+     * The object in a Base64 serialized stream, such as one written by an
+     * earlier release, to check that it can still be read.
+     */
+    public static Object deserialize(String base64) {
+        try {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+            return in.readObject();
+        } catch (Exception e) {
+            throw new AssertionFailedError("Exception while deserializing: " + e);
+        }
+    }
+
 }
\ No newline at end of file
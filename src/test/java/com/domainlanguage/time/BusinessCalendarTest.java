@@ -8,7 +8,10 @@ package com.domainlanguage.time;
 
 import org.junit.Test;
 
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -157,4 +160,34 @@ public class BusinessCalendarTest {
         assertFalse(it.hasNext());
     }
 
+    @Test
+    public void testBusinessDayArithmeticAgreesWithIteration() {
+        BusinessCalendar calendar = businessCalendar();
+        Set extraHolidays = new HashSet();
+        extraHolidays.add(CalendarDate.from(2005, 3, 14));
+        extraHolidays.add(CalendarDate.from(2005, 3, 15));
+        extraHolidays.add(CalendarDate.from(2005, 3, 19)); //a Saturday
+        calendar.addHolidays(extraHolidays);
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            CalendarDate start = CalendarDate.from(2004, 1, 1).plusDays(random.nextInt(900));
+            int numberOfDays = random.nextInt(300);
+
+            Iterator forward = calendar.businessDaysOnly(CalendarInterval.everFrom(start).daysIterator());
+            Iterator backward = calendar.businessDaysOnly(CalendarInterval.everPreceding(start).daysInReverseIterator());
+            for (int n = 0; n < numberOfDays; n++) {
+                forward.next();
+                backward.next();
+            }
+            assertEquals(forward.next(), calendar.plusBusinessDays(start, numberOfDays));
+            assertEquals(backward.next(), calendar.minusBusinessDays(start, numberOfDays));
+
+            CalendarInterval interval = CalendarInterval.inclusive(start, start.plusDays(numberOfDays));
+            int tally = 0;
+            for (Iterator each = calendar.businessDaysOnly(interval.daysIterator()); each.hasNext(); each.next())
+                tally++;
+            assertEquals(tally, calendar.getElapsedBusinessDays(interval));
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import com.domainlanguage.intervals.IntervalSequence;
+
+import static org.junit.Assert.*;
+
+public class CalendarDateSetTest {
+
+    @Test
+    public void testSetOperations() {
+        CalendarDateSet booked = new CalendarDateSet();
+        booked.add(CalendarInterval.inclusive(2004, 3, 1, 2004, 3, 10));
+        booked.add(CalendarInterval.inclusive(2004, 3, 20, 2004, 3, 31));
+        booked.add(CalendarDate.from(2004, 3, 15));
+        assertEquals(23, booked.cardinality());
+        assertTrue(booked.includes(CalendarDate.from(2004, 3, 15)));
+        assertFalse(booked.includes(CalendarDate.from(2004, 3, 16)));
+
+        CalendarDateSet march = new CalendarDateSet();
+        march.add(CalendarInterval.month(2004, 3));
+        CalendarDateSet free = march.minus(booked);
+        assertEquals(8, free.cardinality());
+        assertEquals(free, booked.gaps());
+        assertEquals(march, free.union(booked));
+        assertTrue(free.intersect(booked).isEmpty());
+
+        booked.remove(CalendarInterval.inclusive(2004, 3, 5, 2004, 3, 25));
+        assertEquals(10, booked.cardinality());
+    }
+
+    @Test
+    public void testIntervalSequences() {
+        IntervalSequence intervals = new IntervalSequence();
+        intervals.add(CalendarInterval.inclusive(2003, 12, 30, 2004, 1, 2));
+        intervals.add(CalendarInterval.inclusive(2004, 1, 3, 2004, 1, 5));
+        intervals.add(CalendarInterval.year(2005));
+        Iterator it = CalendarDateSet.from(intervals).asIntervalSequence().iterator();
+        assertEquals(CalendarInterval.inclusive(2003, 12, 30, 2004, 1, 5), it.next());
+        assertEquals(CalendarInterval.year(2005), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnbounded() {
+        new CalendarDateSet().add(CalendarInterval.everFrom(CalendarDate.from(2004, 1, 1)));
+    }
+}
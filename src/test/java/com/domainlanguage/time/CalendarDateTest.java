@@ -147,4 +147,51 @@ public class CalendarDateTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testHashCodeDistinguishesDays() {
+        assertFalse(CalendarDate.from(2024, 2, 3).hashCode() == CalendarDate.from(2024, 3, 2).hashCode());
+        assertFalse(CalendarDate.from(2024, 1, 6).hashCode() == CalendarDate.from(2024, 6, 1).hashCode());
+        assertEquals(new CalendarDate(2024, 2, 3).hashCode(), CalendarDate.from(2024, 2, 3).hashCode());
+    }
+
+    @Test
+    public void testCachedInstances() {
+        assertSame(feb17, CalendarDate.from(2003, 2, 17));
+        assertSame(mar13, feb17.plusDays(24));
+        assertSame(mar13, CalendarDate.from(2003, 3, 12).nextDay());
+        assertNotSame(CalendarDate.from(1900, 1, 1), CalendarDate.from(1900, 1, 1));
+        CalendarDate lenient = CalendarDate.from(2003, 1, 48);
+        assertNotSame(feb17, lenient);
+        assertEquals(2003, lenient.breachEncapsulationOf_year());
+        assertEquals(48, lenient.breachEncapsulationOf_day());
+    }
+
+    @Test
+    public void testCachedYearsCanBeConfigured() {
+        try {
+            CalendarDate.setCachedYears(1890, 1910);
+            assertSame(CalendarDate.from(1900, 1, 1), CalendarDate.from(1900, 1, 1));
+            assertNotSame(CalendarDate.from(2003, 2, 17), CalendarDate.from(2003, 2, 17));
+            assertEquals(CalendarDate.from(1910, 12, 31), CalendarDate.from(1910, 12, 30).nextDay());
+        } finally {
+            CalendarDate.resetCachedYears();
+        }
+        assertSame(CalendarDate.from(2003, 2, 17), CalendarDate.from(2003, 2, 17));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCachedYearsMustBeAWindow() {
+        CalendarDate.setCachedYears(2000, 1999);
+    }
+
+    @Test
+    public void testReadsCalendarDateSerializedByEarlierRelease() {
+        //CalendarDate.from(2004, 2, 29), as serialized by the class before this
+        //release.
+        Object read = SerializationTester.deserialize(
+                "rO0ABXNyACRjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5DYWxlbmRhckRhdGWa7Hv8RTpdxAIA" +
+                "A0kAA2RheUkABW1vbnRoSQAEeWVhcnhwAAAAHQAAAAIAAAfU");
+        assertEquals(CalendarDate.from(2004, 2, 29), read);
+        assertEquals(CalendarDate.from(2004, 3, 1), ((CalendarDate) read).nextDay());
+    }
 }
\ No newline at end of file
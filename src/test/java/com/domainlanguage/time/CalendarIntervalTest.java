@@ -9,9 +9,12 @@ package com.domainlanguage.time;
 import com.domainlanguage.tests.SerializationTester;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -141,4 +144,94 @@ public class CalendarIntervalTest {
         assertTrue(may1.compareTo(may1_may2) < 0);
         assertTrue(may1_may2.compareTo(may1_may1) > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEpochDays() {
+        long[] days = may.epochDays().toArray();
+        assertEquals(31, days.length);
+        assertEquals(may1, CalendarDate.fromEpochDay(days[0]));
+        assertEquals(may31, CalendarDate.fromEpochDay(days[30]));
+        for (int i = 1; i < days.length; i++)
+            assertEquals(days[i - 1] + 1, days[i]);
+
+        CalendarInterval decades = CalendarInterval.inclusive(1900, 1, 1, 2099, 12, 31);
+        assertEquals(decades.lengthInDaysInt(), decades.epochDays().parallel().count());
+        long expectedSum = 0;
+        for (Iterator it = decades.daysIterator(); it.hasNext();)
+            expectedSum += ((CalendarDate) it.next()).toEpochDay();
+        assertEquals(expectedSum, decades.epochDays().parallel().sum());
+    }
+
+    @Test
+    public void testForEachEpochDay() {
+        final List days = new ArrayList();
+        may.forEachEpochDay(epochDay -> days.add(CalendarDate.fromEpochDay(epochDay)));
+        List expected = new ArrayList();
+        for (Iterator it = may.daysIterator(); it.hasNext();)
+            expected.add(it.next());
+        assertEquals(expected, days);
+    }
+
+    @Test
+    public void testEpochDaySpliteratorSplitsByRange() {
+        Spliterator.OfLong whole = may.epochDaySpliterator();
+        assertEquals(31, whole.getExactSizeIfKnown());
+        Spliterator.OfLong firstHalf = whole.trySplit();
+        assertNotNull(firstHalf);
+        assertEquals(31, firstHalf.getExactSizeIfKnown() + whole.getExactSizeIfKnown());
+        firstHalf.tryAdvance((long epochDay) -> assertEquals(may1, CalendarDate.fromEpochDay(epochDay)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEpochDaysOfUnboundedInterval() {
+        CalendarInterval.everFrom(may1).epochDays();
+    }
+
+    @Test
+    public void testDaysIteratorOfUnboundedInterval() {
+        Iterator days = CalendarInterval.everFrom(may31).daysIterator();
+        assertEquals(may31, days.next());
+        assertEquals(jun1, days.next());
+        Iterator reverse = CalendarInterval.everPreceding(may2).daysInReverseIterator();
+        assertEquals(may2, reverse.next());
+        assertEquals(may1, reverse.next());
+    }
+
+    @Test
+    public void testSubintervalStreamsMatchIterator() {
+        CalendarInterval[] intervals = {CalendarInterval.inclusive(2004, 1, 31, 2005, 3, 30), CalendarInterval.inclusive(2004, 2, 1, 2004, 2, 29),
+                CalendarInterval.inclusive(2004, 2, 1, 2004, 2, 1)};
+        Duration[] lengths = {Duration.days(1), Duration.days(5), Duration.weeks(2), Duration.months(1), Duration.years(1)};
+        for (int i = 0; i < intervals.length; i++) {
+            for (int j = 0; j < lengths.length; j++) {
+                List expected = new ArrayList();
+                for (Iterator it = intervals[i].subintervalIterator(lengths[j]); it.hasNext();)
+                    expected.add(it.next());
+                assertEquals(expected, intervals[i].subintervals(lengths[j]).collect(Collectors.toList()));
+                assertEquals(expected, intervals[i].subintervals(lengths[j]).parallel().collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubintervalsShorterThanADay() {
+        CalendarInterval.month(2004, 2).subintervals(Duration.hours(12));
+    }
+
+    @Test
+    public void testReadsCalendarIntervalSerializedByEarlierRelease() {
+        //CalendarInterval.inclusive(2004, 3, 1, 2004, 3, 10), as serialized by the
+        //class before this release.
+        Object read = SerializationTester.deserialize(
+                "rO0ABXNyADBjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5Db25jcmV0ZUNhbGVuZGFySW50ZXJ2" +
+                "YWxpOehk5c46cQIAAkwAA2VuZHQAJkxjb20vZG9tYWlubGFuZ3VhZ2UvdGltZS9DYWxlbmRh" +
+                "ckRhdGU7TAAFc3RhcnRxAH4AAXhyAChjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5DYWxlbmRh" +
+                "ckludGVydmFsO//jc9sYXQwCAAB4cgAlY29tLmRvbWFpbmxhbmd1YWdlLmludGVydmFscy5J" +
+                "bnRlcnZhbOquKZO6mClYAgACTAAQbG93ZXJMaW1pdE9iamVjdHQALExjb20vZG9tYWlubGFu" +
+                "Z3VhZ2UvaW50ZXJ2YWxzL0ludGVydmFsTGltaXQ7TAAQdXBwZXJMaW1pdE9iamVjdHEAfgAE" +
+                "eHBwcHNyACRjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5DYWxlbmRhckRhdGWa7Hv8RTpdxAIA" +
+                "A0kAA2RheUkABW1vbnRoSQAEeWVhcnhwAAAACgAAAAMAAAfUc3EAfgAGAAAAAQAAAAMAAAfU");
+        assertEquals(CalendarInterval.inclusive(2004, 3, 1, 2004, 3, 10), read);
+        assertEquals(10, ((CalendarInterval) read).lengthInDaysInt());
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DatePatternTest {
+    private static final String[] PATTERNS = {"yyyy-MM-dd", "yyyy-M-d", "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", "d/M/yy HH:mm"};
+    private static final String[] ZONES = {"Universal", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata"};
+
+    @Test
+    public void testCompiledOnce() {
+        assertSame(DatePattern.compile("yyyy-MM-dd"), DatePattern.compile("yyyy-MM-dd"));
+        assertEquals("yyyy-MM-dd", DatePattern.compile("yyyy-MM-dd").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPattern() {
+        DatePattern.compile("yyyy-qq");
+    }
+
+    @Test
+    public void testFormatsLikeSimpleDateFormat() {
+        Random random = new Random(11);
+        for (int p = 0; p < PATTERNS.length; p++) {
+            DatePattern pattern = DatePattern.compile(PATTERNS[p]);
+            for (int z = 0; z < ZONES.length; z++) {
+                TimeZone zone = TimeZone.getTimeZone(ZONES[z]);
+                for (int i = 0; i < 2000; i++) {
+                    //From about 1750 to 2190, so both sides of the covered years.
+                    long millis = (long) ((random.nextDouble() - 0.5) * 880 * 365.25 * TimeUnitConversionFactors.millisecondsPerDay);
+                    assertEquals(simpleFormat(PATTERNS[p], zone).format(new Date(millis)), pattern.format(TimePoint.from(millis), zone));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLocalesWithOtherCalendarsAndDigits() throws InterruptedException {
+        final Locale[] locales = {new Locale("th", "TH"), new Locale("th", "TH", "TH"), new Locale("ja", "JP", "JP")};
+        final String[] failure = new String[1];
+        Locale original = Locale.getDefault();
+        try {
+            for (int l = 0; l < locales.length; l++) {
+                Locale.setDefault(locales[l]);
+                //Each pattern keeps a format for each thread, made under the
+                //default locale when the thread first uses it.
+                Thread thread = new Thread() {
+                    public void run() {
+                        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+                        long millis = 1124679473123L;
+                        for (int p = 0; p < PATTERNS.length; p++) {
+                            String expected = simpleFormat(PATTERNS[p], zone).format(new Date(millis));
+                            String actual = DatePattern.compile(PATTERNS[p]).format(TimePoint.from(millis), zone);
+                            if (!expected.equals(actual))
+                                failure[0] = Locale.getDefault() + ": " + expected + " but was " + actual;
+                            else if (!TimePoint.from(simpleFormat(PATTERNS[p], zone).parse(expected, new ParsePosition(0)))
+                                    .equals(DatePattern.compile(PATTERNS[p]).parseTimePoint(expected, zone)))
+                                failure[0] = Locale.getDefault() + ": parsing " + expected;
+                        }
+                        TimeZone universal = TimeZone.getTimeZone("Universal");
+                        SimpleDateFormat dates = simpleFormat("yyyy-MM-dd", universal);
+                        String date = dates.format(new Date(0));
+                        CalendarDate expected = CalendarDate.from(TimePoint.from(dates.parse(date, new ParsePosition(0))), universal);
+                        if (!expected.equals(DatePattern.compile("yyyy-MM-dd").parseCalendarDate(date)))
+                            failure[0] = Locale.getDefault() + ": parsing the date " + date;
+                    }
+                };
+                thread.start();
+                thread.join();
+                assertNull(failure[0], failure[0]);
+            }
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    public void testFormatsDates() {
+        assertEquals("2003-2-7", CalendarDate.from(2003, 2, 7).toString());
+        assertEquals("2003-02-07", CalendarDate.from(2003, 2, 7).toString("yyyy-MM-dd"));
+        assertEquals("2003-02-07T00:00:00.000Z", CalendarDate.from(2003, 2, 7).toString("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
+        assertEquals("0999-03-01", CalendarDate.from(999, 3, 1).toString("yyyy-MM-dd"));
+        assertEquals("10000-3-1", CalendarDate.from(10000, 3, 1).toString());
+        //Out-of-range fields are normalized, as they always have been.
+        assertEquals("2004-1-31", CalendarDate.from(2003, 13, 31).toString());
+        assertEquals("1582-10-20", CalendarDate.from(1582, 10, 10).toString());
+    }
+
+    @Test
+    public void testAppends() {
+        DatePattern pattern = DatePattern.compile("yyyy-MM-dd");
+        StringBuilder builder = new StringBuilder("a,");
+        pattern.appendTo(builder, CalendarDate.from(2004, 5, 6)).append(',');
+        pattern.appendTo(builder, TimePoint.atGMT(2004, 5, 7, 23, 0), TimeZone.getTimeZone("Universal"));
+        assertEquals("a,2004-05-06,2004-05-07", builder.toString());
+
+        CharBuffer buffer = CharBuffer.allocate(64);
+        DatePattern.compile("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").appendTo(buffer, TimePoint.atGMT(2004, 5, 7, 23, 1, 2, 3), TimeZone.getTimeZone("Universal"));
+        pattern.appendTo(buffer, CalendarDate.from(2004, 5, 6));
+        buffer.flip();
+        assertEquals("2004-05-07T23:01:02.003Z2004-05-06", buffer.toString());
+    }
+
+    @Test
+    public void testParsesLikeSimpleDateFormat() {
+        String[] texts = {"2004-05-06", "2004-5-6", "2004-13-40", "2004-05-06 trailing", "04-5-6", "2004-02-29",
+                "2003-02-29", "1582-10-10", "2004-05-06T07:08:09.010Z", "2004-03-28T02:30:00.000Z",
+                "2004-10-31T01:30:00.000Z", "2004-05-06T24:08:09.010Z", "2004-05-06T07:08:09.1Z", "+004-05-06"};
+        for (int p = 0; p < 3; p++) {
+            DatePattern pattern = DatePattern.compile(PATTERNS[p]);
+            for (int z = 0; z < ZONES.length; z++) {
+                TimeZone zone = TimeZone.getTimeZone(ZONES[z]);
+                for (int i = 0; i < texts.length; i++) {
+                    Date expected = simpleFormat(PATTERNS[p], zone).parse(texts[i], new ParsePosition(0));
+                    if (expected == null)
+                        continue;
+                    assertEquals(PATTERNS[p] + " " + texts[i], TimePoint.from(expected), pattern.parseTimePoint(texts[i], zone));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParsesDates() {
+        CalendarDate may6 = CalendarDate.from(2004, 5, 6);
+        assertEquals(may6, CalendarDate.from("2004-05-06", "yyyy-MM-dd"));
+        assertEquals(may6, CalendarDate.from("2004-5-6", "yyyy-MM-dd"));
+        assertEquals(may6, CalendarDate.from("2004-5-06", "yyyy-M-d"));
+        assertEquals(CalendarDate.from(2005, 2, 9), CalendarDate.from("2004-13-40", "yyyy-M-d"));
+        assertEquals(may6, CalendarDate.from("2004-05-06T07:08:09.010Z", "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
+        Random random = new Random(12);
+        for (int i = 0; i < 2000; i++) {
+            CalendarDate date = CalendarDate.fromEpochDay(random.nextInt(300000) - 100000);
+            assertEquals(date, CalendarDate.from(date.toString(), "yyyy-M-d"));
+            assertEquals(date, CalendarDate.from(date.toString("yyyy-MM-dd"), "yyyy-MM-dd"));
+        }
+    }
+
+    private SimpleDateFormat simpleFormat(String pattern, TimeZone zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(zone);
+        return format;
+    }
+}
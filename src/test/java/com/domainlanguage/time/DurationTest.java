@@ -174,4 +174,17 @@ public class DurationTest {
         assertEquals(TimeUnit.hour, Duration.hours(25).normalizedUnit());
     }
 
+    @Test
+    public void testReadsDurationSerializedByEarlierRelease() {
+        //Duration.days(11), as serialized by the class before this release.
+        Object read = SerializationTester.deserialize(
+                "rO0ABXNyACBjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5EdXJhdGlvbgUnYtxlZW3oAgACSgAI" +
+                "cXVhbnRpdHlMAAR1bml0dAAiTGNvbS9kb21haW5sYW5ndWFnZS90aW1lL1RpbWVVbml0O3hw" +
+                "AAAAAAAAAAtzcgAgY29tLmRvbWFpbmxhbmd1YWdlLnRpbWUuVGltZVVuaXSnyB+WPf4EKwIA" +
+                "A0kABmZhY3RvckwACGJhc2VUeXBldAAnTGNvbS9kb21haW5sYW5ndWFnZS90aW1lL1RpbWVV" +
+                "bml0JFR5cGU7TAAEdHlwZXEAfgAEeHAFJlwAc3IAJWNvbS5kb21haW5sYW5ndWFnZS50aW1l" +
+                "LlRpbWVVbml0JFR5cGW4qgpCJrlxIgIAAUwABG5hbWV0ABJMamF2YS9sYW5nL1N0cmluZzt4" +
+                "cHQAC21pbGxpc2Vjb25kc3EAfgAGdAADZGF5");
+        assertEquals(Duration.days(11), read);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EpochDaysTest {
+
+    @Test
+    public void testKnownDates() {
+        assertEquals(0, EpochDays.fromDate(1970, 1, 1));
+        assertEquals(-1, EpochDays.fromDate(1969, 12, 31));
+        assertEquals(11016, EpochDays.fromDate(2000, 2, 29));
+        assertEquals(CalendarDate.from(2000, 2, 29), EpochDays.toDate(11016));
+        assertEquals(Calendar.THURSDAY, EpochDays.dayOfWeek(0));
+        assertEquals(Calendar.WEDNESDAY, EpochDays.dayOfWeek(-1));
+    }
+
+    @Test
+    public void testLeapYears() {
+        assertTrue(EpochDays.isLeapYear(2000));
+        assertTrue(EpochDays.isLeapYear(2004));
+        assertFalse(EpochDays.isLeapYear(1900));
+        assertFalse(EpochDays.isLeapYear(2003));
+        assertEquals(29, EpochDays.daysInMonth(2004, 2));
+        assertEquals(28, EpochDays.daysInMonth(2100, 2));
+    }
+
+    @Test
+    public void testSameAsGregorianCalendar() {
+        GregorianCalendar calendar = prolepticUniversalCalendar();
+        //Calendar.YEAR counts years of the era, so start at 0001-01-01.
+        for (long epochDay = -719162; epochDay <= 800000; epochDay += 5) {
+            calendar.setTimeInMillis(epochDay * TimeUnitConversionFactors.millisecondsPerDay);
+            CalendarDate date = EpochDays.toDate(epochDay);
+            assertEquals(CalendarDate._from(calendar), date);
+            assertEquals(epochDay, date.toEpochDay());
+            assertEquals(calendar.get(Calendar.DAY_OF_WEEK), date.dayOfWeek());
+        }
+    }
+
+    @Test
+    public void testLenientFieldsLikeCalendar() {
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            int year = 1600 + random.nextInt(800);
+            int month = random.nextInt(40) - 13;
+            int day = random.nextInt(100) - 30;
+            int months = random.nextInt(100) - 50;
+            CalendarDate lenient = CalendarDate.from(year, month, day);
+
+            GregorianCalendar calendar = prolepticUniversalCalendar();
+            calendar.clear();
+            calendar.set(year, month - 1, day);
+            assertEquals(CalendarDate._from(calendar), lenient.plusDays(0));
+            calendar.add(Calendar.MONTH, months);
+            assertEquals(CalendarDate._from(calendar), lenient.plusMonths(months));
+        }
+    }
+
+    private GregorianCalendar prolepticUniversalCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("Universal"));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        return calendar;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import com.domainlanguage.intervals.IntervalSequence;
+
+import static org.junit.Assert.*;
+
+public class MinuteSlotSetTest {
+
+    @Test
+    public void testPartialMinutesTakeWholeSlots() {
+        MinuteSlotSet busy = new MinuteSlotSet();
+        busy.add(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 9, 0, 30), TimePoint.atGMT(2004, 5, 1, 9, 2, 0)));
+        assertEquals(2, busy.cardinality());
+        assertTrue(busy.includes(TimePoint.atGMT(2004, 5, 1, 9, 0)));
+        assertFalse(busy.includes(TimePoint.atGMT(2004, 5, 1, 9, 2)));
+        busy.add(TimeInterval.closed(TimePoint.atGMT(2004, 5, 1, 9, 5), TimePoint.atGMT(2004, 5, 1, 9, 6)));
+        assertEquals(4, busy.cardinality());
+        //An empty interval takes no slot.
+        busy.add(TimeInterval.open(TimePoint.atGMT(2004, 5, 1, 10, 0), TimePoint.atGMT(2004, 5, 1, 10, 0)));
+        assertEquals(4, busy.cardinality());
+    }
+
+    @Test
+    public void testFreeTime() {
+        IntervalSequence meetings = new IntervalSequence();
+        meetings.add(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 9, 0), TimePoint.atGMT(2004, 5, 1, 10, 0)));
+        meetings.add(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 9, 30), TimePoint.atGMT(2004, 5, 1, 11, 0)));
+        meetings.add(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 13, 0), TimePoint.atGMT(2004, 5, 1, 14, 0)));
+        MinuteSlotSet busy = MinuteSlotSet.from(meetings);
+        assertEquals(180, busy.cardinality());
+
+        Iterator free = busy.gaps().asIntervalSequence().iterator();
+        assertEquals(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 11, 0), TimePoint.atGMT(2004, 5, 1, 13, 0)), free.next());
+        assertFalse(free.hasNext());
+
+        MinuteSlotSet workday = new MinuteSlotSet();
+        workday.add(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 8, 0), TimePoint.atGMT(2004, 5, 1, 17, 0)));
+        assertEquals(9 * 60 - 180, workday.minus(busy).cardinality());
+        assertEquals(busy, workday.intersect(busy));
+        assertEquals(workday, workday.union(busy));
+        busy.remove(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 0, 0), TimePoint.atGMT(2004, 5, 1, 12, 0)));
+        assertEquals(60, busy.cardinality());
+    }
+
+    @Test
+    public void testBeforeEpoch() {
+        MinuteSlotSet slots = new MinuteSlotSet();
+        slots.add(TimePoint.from(-1));
+        assertTrue(slots.includes(TimePoint.from(-60000)));
+        assertFalse(slots.includes(TimePoint.from(0)));
+    }
+}
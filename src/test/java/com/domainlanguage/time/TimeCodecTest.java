@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import com.domainlanguage.intervals.Interval;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TimeCodecTest {
+    private static final TimeCodec[] CODECS = {TimeCodec.FIXED, TimeCodec.VARINT};
+
+    @Test
+    public void testRoundTrips() {
+        for (int i = 0; i < CODECS.length; i++) {
+            TimeCodec codec = CODECS[i];
+            ByteBuffer[] buffers = {ByteBuffer.allocate(512), ByteBuffer.allocateDirect(512).order(ByteOrder.LITTLE_ENDIAN)};
+            for (int j = 0; j < buffers.length; j++) {
+                ByteBuffer buffer = buffers[j];
+                TimePoint point = TimePoint.atGMT(2004, 3, 17, 9, 30, 15, 250);
+                TimeInterval unbounded = TimeInterval.everFrom(point);
+                TimeInterval open = TimeInterval.open(TimePoint.from(-1), point);
+                CalendarInterval march = CalendarInterval.month(2004, 3);
+                CalendarInterval untilMarch = CalendarInterval.everPreceding(CalendarDate.from(2004, 3, 1));
+                codec.putTimePoint(buffer, point);
+                codec.putCalendarDate(buffer, CalendarDate.from(1969, 12, 31));
+                codec.putDuration(buffer, Duration.quarters(3));
+                codec.putDuration(buffer, Duration.minutes(90));
+                codec.putTimeInterval(buffer, unbounded);
+                codec.putTimeInterval(buffer, open);
+                codec.putCalendarInterval(buffer, march);
+                codec.putCalendarInterval(buffer, untilMarch);
+                codec.putLong(buffer, Long.MIN_VALUE);
+                buffer.flip();
+                assertEquals(point, codec.getTimePoint(buffer));
+                assertEquals(CalendarDate.from(1969, 12, 31), codec.getCalendarDate(buffer));
+                assertEquals(Duration.quarters(3), codec.getDuration(buffer));
+                assertEquals("1 hour, 30 minutes", codec.getDuration(buffer).toString());
+                assertSameLimits(unbounded, codec.getTimeInterval(buffer));
+                assertEquals(open, codec.getTimeInterval(buffer));
+                assertEquals(march, codec.getCalendarInterval(buffer));
+                assertSameLimits(untilMarch, codec.getCalendarInterval(buffer));
+                assertEquals(Long.MIN_VALUE, codec.getLong(buffer));
+                assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    public void testArrays() {
+        TimePoint[] points = new TimePoint[100];
+        CalendarDate[] dates = new CalendarDate[100];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = TimePoint.atGMT(2004, 1, 1, 0, 0).plus(Duration.seconds(i * 37));
+            dates[i] = CalendarDate.from(2004, 1, 1).plusDays(i * 3);
+        }
+        for (int i = 0; i < CODECS.length; i++) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(2048);
+            buffer.put((byte) 7);
+            CODECS[i].putTimePoints(buffer, points);
+            CODECS[i].putCalendarDates(buffer, dates);
+            buffer.flip();
+            assertEquals(7, buffer.get());
+            assertTrue(Arrays.equals(points, CODECS[i].getTimePoints(buffer)));
+            assertTrue(Arrays.equals(dates, CODECS[i].getCalendarDates(buffer)));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testVarintsAreSmallForSortedValues() {
+        TimePoint[] points = new TimePoint[1000];
+        for (int i = 0; i < points.length; i++)
+            points[i] = TimePoint.atGMT(2004, 1, 1, 0, 0).plus(Duration.seconds(i));
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        TimeCodec.VARINT.putTimePoints(buffer, points);
+        //The length, the first point in full, then 999 differences of 1000ms.
+        assertEquals(2 + 6 + 999 * 2, buffer.position());
+        buffer.clear();
+        TimeCodec.FIXED.putTimePoints(buffer, points);
+        assertEquals(4 + 1000 * 8, buffer.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDamagedLength() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(1000000);
+        buffer.flip();
+        TimeCodec.FIXED.getTimePoints(buffer);
+    }
+
+    //Interval.equals() cannot compare unbounded intervals.
+    private void assertSameLimits(Interval expected, Interval actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.lowerLimit(), actual.lowerLimit());
+        assertEquals(expected.includesLowerLimit(), actual.includesLowerLimit());
+        assertEquals(expected.upperLimit(), actual.upperLimit());
+        assertEquals(expected.includesUpperLimit(), actual.includesUpperLimit());
+    }
+}
@@ -9,7 +9,13 @@ package com.domainlanguage.time;
 import com.domainlanguage.tests.SerializationTester;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.domainlanguage.intervals.Interval;
+import com.domainlanguage.intervals.LongInterval;
 
 import static org.junit.Assert.*;
 
@@ -235,4 +241,110 @@ public class TimeIntervalTest {
         assertFalse("intersects false", i19_21.intersects(i22_23));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMillisecondComparisonsAgreeWithIntervalComparisons() {
+        TimeInterval[] intervals = {TimeInterval.closed(dec20_2003, dec22_2003), TimeInterval.over(dec20_2003, dec22_2003),
+                TimeInterval.open(dec19_2003, dec20_2003), TimeInterval.open(dec21_2003, dec21_2003),
+                TimeInterval.over(dec21_2003, false, dec23_2003, true), TimeInterval.closed(dec22_2003, dec22_2003)};
+        TimePoint[] points = {dec19_2003, dec20_2003, dec21_2003, dec22_2003, dec23_2003};
+        for (int i = 0; i < intervals.length; i++) {
+            //The same limits, compared through Comparable.
+            Interval generic = Interval.over(intervals[i].start(), intervals[i].includesLowerLimit(), intervals[i].end(), intervals[i].includesUpperLimit());
+            for (int j = 0; j < points.length; j++) {
+                assertEquals(generic.includes(points[j]), intervals[i].includes(points[j]));
+                assertEquals(generic.isBelow(points[j]), intervals[i].isBefore(points[j]));
+                assertEquals(generic.isAbove(points[j]), intervals[i].isAfter(points[j]));
+            }
+            for (int j = 0; j < intervals.length; j++) {
+                assertEquals(generic.intersects(intervals[j]), intervals[i].intersects(intervals[j]));
+                assertEquals(generic.covers(intervals[j]), intervals[i].covers(intervals[j]));
+            }
+        }
+    }
+
+    @Test
+    public void testUnboundedInMilliseconds() {
+        TimeInterval after = TimeInterval.everFrom(dec20_2003);
+        TimeInterval before = TimeInterval.everPreceding(dec22_2003);
+        assertTrue(after.includes(dec23_2003));
+        assertFalse(after.includes(dec19_2003));
+        assertTrue(before.includes(dec19_2003));
+        assertFalse(before.includes(dec22_2003));
+        assertTrue(after.intersects(before));
+        assertTrue(after.covers(TimeInterval.closed(dec21_2003, dec23_2003)));
+        assertEquals(LongInterval.over(dec20_2003.millisecondsFromEpoc, true, Long.MAX_VALUE, true), after.asLongInterval());
+    }
+
+    @Test
+    public void testSubintervalStreamsMatchIterator() {
+        TimePoint start = TimePoint.atGMT(2004, 1, 31, 6, 0);
+        TimeInterval[] intervals = {TimeInterval.over(start, TimePoint.atGMT(2004, 3, 1, 0, 0)),
+                TimeInterval.closed(start, TimePoint.atGMT(2005, 1, 31, 6, 0)),
+                TimeInterval.over(start, false, TimePoint.atGMT(2004, 3, 1, 0, 0), true)};
+        Duration[] lengths = {Duration.minutes(7), Duration.hours(25), Duration.days(3), Duration.months(1), Duration.quarters(1)};
+        for (int i = 0; i < intervals.length; i++) {
+            for (int j = 0; j < lengths.length; j++) {
+                List expected = new ArrayList();
+                for (Iterator it = intervals[i].subintervalIterator(lengths[j]); it.hasNext();)
+                    expected.add(it.next());
+                assertEquals(expected, intervals[i].subintervals(lengths[j]).collect(Collectors.toList()));
+                assertEquals(expected.size(), intervals[i].subintervalSpliterator(lengths[j]).getExactSizeIfKnown());
+            }
+        }
+    }
+
+    @Test
+    public void testSubintervalsInParallel() {
+        TimeInterval year = TimeInterval.over(TimePoint.atMidnightGMT(2004, 1, 1), TimePoint.atMidnightGMT(2005, 1, 1));
+        long minutes = year.subintervals(Duration.minutes(1)).parallel()
+                .mapToLong(each -> each.length().inBaseUnits() / 60000).sum();
+        assertEquals(366 * 24 * 60, minutes);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubintervalsOfUnbounded() {
+        TimeInterval.everFrom(dec20_2003).subintervals(Duration.days(1));
+    }
+
+    @Test
+    public void testReadsTimeIntervalSerializedByEarlierRelease() {
+        //TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 9, 0), TimePoint.atGMT(2004,
+        //5, 1, 10, 0)), as serialized by the class before this release.
+        Object read = SerializationTester.deserialize(
+                "rO0ABXNyACRjb20uZG9tYWlubGFuZ3VhZ2UudGltZS5UaW1lSW50ZXJ2YWwjetDqh792agIA" +
+                "AHhyACVjb20uZG9tYWlubGFuZ3VhZ2UuaW50ZXJ2YWxzLkludGVydmFs6q4pk7qYKVgCAAJM" +
+                "ABBsb3dlckxpbWl0T2JqZWN0dAAsTGNvbS9kb21haW5sYW5ndWFnZS9pbnRlcnZhbHMvSW50" +
+                "ZXJ2YWxMaW1pdDtMABB1cHBlckxpbWl0T2JqZWN0cQB+AAJ4cHNyACpjb20uZG9tYWlubGFu" +
+                "Z3VhZ2UuaW50ZXJ2YWxzLkludGVydmFsTGltaXRX+nfVE1bOaQIAA1oABmNsb3NlZFoABWxv" +
+                "d2VyTAAFdmFsdWV0ABZMamF2YS9sYW5nL0NvbXBhcmFibGU7eHABAXNyACFjb20uZG9tYWlu" +
+                "bGFuZ3VhZ2UudGltZS5UaW1lUG9pbnSrLuSncp5W6AIAAUoAFG1pbGxpc2Vjb25kc0Zyb21F" +
+                "cG9jeHAAAAD8P8qWgHNxAH4ABAAAc3EAfgAHAAAA/EABhQA=");
+        TimeInterval interval = (TimeInterval) read;
+        assertEquals(TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 9, 0), TimePoint.atGMT(2004, 5, 1, 10, 0)), interval);
+        assertTrue(interval.includes(TimePoint.atGMT(2004, 5, 1, 9, 30)));
+    }
+
+    @Test
+    public void testEndBeforeStartAnswersAsInterval() {
+        //Only an assertion in Interval stops such an interval being made.
+        TimePoint nine = TimePoint.atGMT(2004, 5, 1, 9, 0);
+        TimePoint ten = TimePoint.atGMT(2004, 5, 1, 10, 0);
+        TimeInterval inverted;
+        try {
+            inverted = TimeInterval.over(ten, nine);
+        } catch (AssertionError assertionsEnabled) {
+            return;
+        }
+        Interval same = Interval.over(ten, true, nine, false);
+        TimePoint[] points = {nine.minus(Duration.hours(1)), nine, TimePoint.atGMT(2004, 5, 1, 9, 30), ten, ten.plus(Duration.hours(1))};
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(same.includes(points[i]), inverted.includes(points[i]));
+            assertEquals(same.isBelow(points[i]), inverted.isBefore(points[i]));
+            assertEquals(same.isAbove(points[i]), inverted.isAfter(points[i]));
+        }
+        TimeInterval morning = TimeInterval.over(TimePoint.atGMT(2004, 5, 1, 8, 0), TimePoint.atGMT(2004, 5, 1, 12, 0));
+        assertEquals(same.intersects(morning), inverted.intersects(morning));
+        assertEquals(morning.covers(same), morning.covers(inverted));
+        assertEquals(same.covers(morning), inverted.covers(morning));
+    }
+}
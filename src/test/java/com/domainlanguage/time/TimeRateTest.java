@@ -9,7 +9,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
@@ -50,4 +52,48 @@ public class TimeRateTest {
         TimeRate rate = new TimeRate(11, Duration.days(2));
         assertEquals(new TimeRate(11.00, Duration.days(2)), rate);
     }
+
+    @Test
+    public void testUnscaledOverSameAsOver() {
+        TimeRate[] rates = {new TimeRate("100.00", Duration.minutes(3)), new TimeRate("0.0475", Duration.years(1)),
+                new TimeRate("-12.5", Duration.days(7)), new TimeRate("12345.000000000000000000000001", Duration.days(1000))};
+        int[] roundRules = {BigDecimal.ROUND_DOWN, BigDecimal.ROUND_HALF_EVEN, BigDecimal.ROUND_CEILING};
+        Random random = new Random(16);
+        for (int r = 0; r < rates.length; r++) {
+            boolean monthly = r == 1;
+            Duration[] durations = new Duration[200];
+            for (int i = 0; i < durations.length; i++)
+                durations[i] = monthly ? Duration.months(random.nextInt(240)) : Duration.milliseconds(random.nextInt(Integer.MAX_VALUE));
+            for (int scale = 0; scale <= 4; scale++) {
+                for (int k = 0; k < roundRules.length; k++) {
+                    long[] unscaled = rates[r].unscaledOver(durations, scale, roundRules[k]);
+                    for (int i = 0; i < durations.length; i++)
+                        assertEquals(rates[r].over(durations[i], scale, roundRules[k]), BigDecimal.valueOf(unscaled[i], scale));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnscaledOverTimePoints() {
+        TimeRate rate = new TimeRate("1.5", Duration.hours(1));
+        TimePoint[] starts = {TimePoint.atGMT(2004, 1, 1, 0, 0), TimePoint.atGMT(2004, 1, 1, 0, 0)};
+        TimePoint[] ends = {TimePoint.atGMT(2004, 1, 1, 2, 0), TimePoint.atGMT(2004, 1, 1, 0, 20)};
+        assertArrayEquals(new long[] {300, 50}, rate.unscaledOver(starts, ends, 2, BigDecimal.ROUND_UNNECESSARY));
+        try {
+            new TimeRate("1", Duration.months(1)).unscaledOver(starts, ends, 2, BigDecimal.ROUND_DOWN);
+            fail("A monthly rate cannot be applied to milliseconds");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testUnscaledOverBeyondLong() {
+        new TimeRate("123456789012345678.9", Duration.hours(1)).unscaledOver(new Duration[] {Duration.days(1000)}, 2, BigDecimal.ROUND_DOWN);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testUnscaledOverNeedsRounding() {
+        new TimeRate("100.00", Duration.minutes(3)).unscaledOver(new Duration[] {Duration.minutes(1)}, 2, BigDecimal.ROUND_UNNECESSARY);
+    }
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.time;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class ZoneOffsetsTest {
+    private static final String[] ZONES = {"America/New_York", "Europe/London", "Australia/Lord_Howe",
+            "America/Sao_Paulo", "Pacific/Apia", "Asia/Kolkata", "Europe/Moscow", "Universal"};
+    private static final int[] YEARS = {1901, 1945, 1970, 1996, 2011, 2024, 2050, 2099};
+
+    @Test
+    public void testLocalTimesResolvedLikeCalendar() {
+        for (int z = 0; z < ZONES.length; z++) {
+            TimeZone zone = TimeZone.getTimeZone(ZONES[z]);
+            for (int y = 0; y < YEARS.length; y++) {
+                //Every 15 minutes of the year, so every transition is crossed.
+                for (int day = 1; day <= 366; day++)
+                    for (int minute = 0; minute < 24 * 60; minute += 15)
+                        assertAt(YEARS[y], 1, day, minute / 60, minute % 60, zone);
+            }
+        }
+    }
+
+    @Test
+    public void testLenientFieldsResolvedLikeCalendar() {
+        Random random = new Random(2);
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        for (int i = 0; i < 2000; i++)
+            assertAt(1950 + random.nextInt(100), random.nextInt(30) - 8, random.nextInt(80) - 20,
+                    random.nextInt(60) - 10, random.nextInt(200) - 50, zone);
+    }
+
+    @Test
+    public void testDatesOfInstantsLikeCalendar() {
+        Random random = new Random(8);
+        for (int z = 0; z < ZONES.length; z++) {
+            TimeZone zone = TimeZone.getTimeZone(ZONES[z]);
+            for (int i = 0; i < 20000; i++) {
+                long millis = (long) (random.nextDouble() * 200 * 365.25 * TimeUnitConversionFactors.millisecondsPerDay) - 70L * 365 * TimeUnitConversionFactors.millisecondsPerDay;
+                Calendar calendar = Calendar.getInstance(zone);
+                calendar.setTimeInMillis(millis);
+                assertEquals(CalendarDate._from(calendar), CalendarDate.from(TimePoint.from(millis), zone));
+            }
+        }
+    }
+
+    @Test
+    public void testChangedZoneGetsItsOwnTables() {
+        SimpleTimeZone zone = new SimpleTimeZone(0, "Changing");
+        TimePoint noon = TimePoint.at(2004, 6, 1, 12, 0, 0, zone);
+        zone.setRawOffset(TimeUnitConversionFactors.millisecondsPerHour);
+        assertEquals(noon.millisecondsFromEpoc - TimeUnitConversionFactors.millisecondsPerHour,
+                TimePoint.at(2004, 6, 1, 12, 0, 0, zone).millisecondsFromEpoc);
+    }
+
+    @Test
+    public void testZoneWithoutValueEqualityIsNotCached() {
+        TimeZone fixed = new TimeZone() {
+            public int getOffset(int era, int year, int month, int day, int dayOfWeek, int milliseconds) {
+                return getRawOffset();
+            }
+
+            public int getRawOffset() {
+                return 2 * TimeUnitConversionFactors.millisecondsPerHour;
+            }
+
+            public void setRawOffset(int offsetMillis) {
+            }
+
+            public boolean useDaylightTime() {
+                return false;
+            }
+
+            public boolean inDaylightTime(Date date) {
+                return false;
+            }
+        };
+        assertFalse(ZoneOffsets.covers(fixed, 0));
+        assertTrue(ZoneOffsets.covers(new SimpleTimeZone(0, "Fixed"), 0));
+        assertTrue(ZoneOffsets.covers(TimeZone.getTimeZone("Europe/London"), 0));
+        assertAt(2004, 6, 1, 12, 0, fixed);
+        assertEquals(CalendarDate.from(2004, 6, 2), CalendarDate.from(TimePoint.atGMT(2004, 6, 1, 23, 0), fixed));
+    }
+
+    @Test
+    public void testOutsideCoveredYears() {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        assertAt(1850, 7, 4, 12, 0, zone);
+        assertAt(2300, 7, 4, 12, 0, zone);
+        assertAt(1582, 10, 10, 0, 0, zone);
+    }
+
+    private void assertAt(int year, int month, int day, int hour, int minute, TimeZone zone) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.set(Calendar.YEAR, year);
+        calendar.set(Calendar.MONTH, month - 1);
+        calendar.set(Calendar.DATE, day);
+        calendar.set(Calendar.HOUR_OF_DAY, hour);
+        calendar.set(Calendar.MINUTE, minute);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        TimePoint expected = TimePoint.from(calendar);
+        assertEquals(zone.getID() + " " + year + "-" + month + "-" + day + " " + hour + ":" + minute,
+                expected, TimePoint.at(year, month, day, hour, minute, 0, 0, zone));
+    }
+}
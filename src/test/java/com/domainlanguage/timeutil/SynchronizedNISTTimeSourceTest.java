@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.timeutil;
+
+import com.domainlanguage.tests.CannedResponseServer;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+import static org.junit.Assert.*;
+
+public class SynchronizedNISTTimeSourceTest {
+    private static final long EXPECTED_MILLISECONDS = 1124679473000l;
+    private static final String CANNED_RESPONSE = "\n53604 05-08-22 02:57:53 50 0 0 725.6 UTC(NIST) * \n";
+
+    private CannedResponseServer standInNISTServer;
+    private InetSocketAddress standIn;
+    private InetSocketAddress nobodyListening;
+    private SynchronizedNISTTimeSource source;
+
+    @Before
+    public void setUp() throws Exception {
+        standInNISTServer = new CannedResponseServer(CANNED_RESPONSE);
+        standInNISTServer.start();
+        standIn = InetSocketAddress.createUnresolved(standInNISTServer.getHostName(), standInNISTServer.getPort());
+        ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        nobodyListening = InetSocketAddress.createUnresolved(closed.getInetAddress().getHostName(), closed.getLocalPort());
+        closed.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (source != null)
+            source.stop();
+        if (standInNISTServer != null)
+            standInNISTServer.stop();
+    }
+
+    @Test
+    public void testFailsOverToAServerThatAnswers() {
+        source = new SynchronizedNISTTimeSource(new InetSocketAddress[] {nobodyListening, standIn}, 1000, Duration.minutes(10));
+        assertFalse(source.isSynchronized());
+        assertTrue(source.synchronize());
+        TimePoint first = source.now();
+        TimePoint second = source.now();
+        assertFalse(second.isBefore(first));
+        assertBetween(EXPECTED_MILLISECONDS, EXPECTED_MILLISECONDS + 1000, second);
+    }
+
+    @Test
+    public void testKeepsTheLastOffsetWhenNoServerAnswers() throws Exception {
+        source = new SynchronizedNISTTimeSource(new InetSocketAddress[] {standIn}, 1000, Duration.minutes(10));
+        assertTrue(source.synchronize());
+        standInNISTServer.stop();
+        standInNISTServer = null;
+        assertFalse(source.synchronize());
+        assertBetween(EXPECTED_MILLISECONDS, EXPECTED_MILLISECONDS + 1000, source.now());
+    }
+
+    @Test
+    public void testNeverGoesBackAfterAnEarlierAnswer() throws Exception {
+        CannedResponseServer slowServer = new CannedResponseServer("\n53604 05-08-22 02:57:50 50 0 0 725.6 UTC(NIST) * \n");
+        slowServer.start();
+        try {
+            InetSocketAddress slow = InetSocketAddress.createUnresolved(slowServer.getHostName(), slowServer.getPort());
+            source = new SynchronizedNISTTimeSource(new InetSocketAddress[] {standIn, slow}, 1000, Duration.minutes(10));
+            assertTrue(source.synchronize());
+            TimePoint before = source.now();
+            standInNISTServer.stop();
+            standInNISTServer = null;
+            assertTrue(source.synchronize());
+            TimePoint after = source.now();
+            assertFalse(after.isBefore(before));
+            Thread.sleep(20);
+            assertFalse(source.now().isBefore(after));
+            assertBetween(EXPECTED_MILLISECONDS, EXPECTED_MILLISECONDS + 1000, source.now());
+        } finally {
+            slowServer.stop();
+        }
+    }
+
+    @Test
+    public void testNeverSynchronized() {
+        source = new SynchronizedNISTTimeSource(new InetSocketAddress[] {nobodyListening}, 1000, Duration.minutes(10));
+        assertFalse(source.synchronize());
+        try {
+            source.now();
+            fail("There is no time to answer without a server.");
+        } catch (RuntimeException expected) {
+            assertFalse(source.isSynchronized());
+        }
+    }
+
+    @Test
+    public void testPollsInTheBackground() throws InterruptedException {
+        source = new SynchronizedNISTTimeSource(new InetSocketAddress[] {standIn}, 1000, Duration.milliseconds(10));
+        source.start();
+        assertTrue(source.isPolling());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!source.isSynchronized() && System.currentTimeMillis() < deadline)
+            Thread.sleep(1);
+        source.stop();
+        assertFalse(source.isPolling());
+        assertBetween(EXPECTED_MILLISECONDS, EXPECTED_MILLISECONDS + 1000, source.now());
+    }
+
+    private void assertBetween(long least, long most, TimePoint point) {
+        long milliseconds = point.asJavaUtilDate().getTime();
+        assertTrue(point.toString(), least <= milliseconds && milliseconds <= most);
+    }
+}
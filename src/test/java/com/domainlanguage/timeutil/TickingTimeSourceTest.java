@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2004 Domain Language, Inc. (http://domainlanguage.com) This
+ * free software is distributed under the "MIT" licence. See file licence.txt.
+ * For more information, see http://timeandmoney.sourceforge.net.
+ */
+
+package com.domainlanguage.timeutil;
+
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimePoint;
+import com.domainlanguage.time.TimeSource;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class TickingTimeSourceTest {
+    private final AtomicLong reads = new AtomicLong();
+    private final TimeSource countingSource = new TimeSource() {
+        public TimePoint now() {
+            return TimePoint.from(reads.incrementAndGet());
+        }
+    };
+    private TickingTimeSource source;
+
+    @After
+    public void tearDown() {
+        if (source != null)
+            source.stop();
+        Clock.reset();
+    }
+
+    @Test
+    public void testAnswersTheLastTick() {
+        source = new TickingTimeSource(countingSource, Duration.hours(1));
+        assertFalse(source.isTicking());
+        assertEquals(TimePoint.from(1), source.now());
+        assertEquals(TimePoint.from(2), source.now());
+
+        source.start();
+        assertTrue(source.isTicking());
+        TimePoint cached = source.now();
+        assertEquals(TimePoint.from(3), cached);
+        for (int i = 0; i < 1000; i++)
+            assertSame(cached, source.now());
+
+        source.stop();
+        assertFalse(source.isTicking());
+        assertEquals(TimePoint.from(4), source.now());
+    }
+
+    @Test
+    public void testTicks() throws InterruptedException {
+        source = new TickingTimeSource(countingSource, Duration.milliseconds(1));
+        source.start();
+        TimePoint first = source.now();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (source.now().equals(first) && System.currentTimeMillis() < deadline)
+            Thread.sleep(1);
+        assertTrue(source.now().isAfter(first));
+    }
+
+    @Test
+    public void testAsClockTimeSource() {
+        source = TickingTimeSource.ticking(Duration.milliseconds(10));
+        Clock.setTimeSource(source);
+        long difference = Clock.now().asJavaUtilDate().getTime() - System.currentTimeMillis();
+        assertTrue(Math.abs(difference) < 1000);
+    }
+
+    @Test
+    public void testStopOutlastedBySlowSource() throws InterruptedException {
+        final AtomicBoolean slow = new AtomicBoolean();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch answered = new CountDownLatch(1);
+        TimeSource slowSource = new TimeSource() {
+            public TimePoint now() {
+                if (slow.compareAndSet(true, false)) {
+                    entered.countDown();
+                    //Ignore interruption, as a source stuck in I/O might.
+                    long until = System.currentTimeMillis() + 1500;
+                    while (System.currentTimeMillis() < until) {
+                        try {
+                            Thread.sleep(until - System.currentTimeMillis());
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                    TimePoint result = countingSource.now();
+                    answered.countDown();
+                    return result;
+                }
+                return countingSource.now();
+            }
+        };
+        source = new TickingTimeSource(slowSource, Duration.milliseconds(1));
+        source.start();
+        slow.set(true);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        source.stop();
+        assertTrue(answered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertFalse(source.isTicking());
+        assertFalse(source.now().equals(source.now()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroResolution() {
+        new TickingTimeSource(countingSource, Duration.milliseconds(0));
+    }
+}